@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.bench;
+
+import com.igormaznitsa.z80.Z80;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alignment of eight SPEC256 GFX cores with the main CPU, it is made before every step of the
+ * cores, so every operation is alignment of all eight cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GfxCoreAlignBenchmark {
+
+  private static final int GFX_CORES = 8;
+  private static final int STEPS = 10_000;
+
+  /**
+   * Registers to align in format of SPEC256 configuration, empty means PC and SP only.
+   */
+  @Param({"", "AFBCDEHL", "AFBCDEHLXxYy10PSsafbcdehl"})
+  public String registers;
+
+  private Z80 mainCpu;
+  private Z80[] gfxCores;
+  private int packedFlags;
+
+  @Setup
+  public void setup() {
+    final Random rnd = new Random(12345L);
+    this.mainCpu = new Z80(new Z80StepBenchmark.RamBus(new byte[0x10000]));
+    this.gfxCores = new Z80[GFX_CORES];
+    for (int i = 0; i < GFX_CORES; i++) {
+      this.gfxCores[i] = new Z80(this.mainCpu);
+    }
+    for (int reg = Z80.REG_A; reg <= Z80.REG_L; reg++) {
+      this.mainCpu.setRegister(reg, rnd.nextInt(0x100), false);
+      this.mainCpu.setRegister(reg, rnd.nextInt(0x100), true);
+    }
+    this.packedFlags = Z80.parseAndPackRegAlignValue(this.registers);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public int alignGfxCores() {
+    final Z80 main = this.mainCpu;
+    final Z80[] cores = this.gfxCores;
+    final int flags = this.packedFlags;
+    int result = 0;
+    for (int i = 0; i < STEPS; i++) {
+      main.setRegister(Z80.REG_PC, i);
+      for (final Z80 core : cores) {
+        core.alignRegisterValuesWith(main, flags);
+      }
+      result += cores[i & (GFX_CORES - 1)].getRegister(Z80.REG_PC);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.bench;
+
+import com.igormaznitsa.zxpoly.components.BoardMode;
+import com.igormaznitsa.zxpoly.components.video.timings.TimingProfile;
+import com.igormaznitsa.zxpoly.headless.HeadlessEmulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full emulation frames executed through Motherboard.step() with the embedded test ROM, the video
+ * buffer is not rendered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MotherboardFrameBenchmark {
+
+  private static final int BOOT_FRAMES = 150;
+
+  @Param({"ZX128", "ZXPOLY", "SPEC256"})
+  public BoardMode boardMode;
+
+  @Param({"false", "true"})
+  public boolean contendedRam;
+
+  private HeadlessEmulator emulator;
+
+  @Setup
+  public void setup() throws IOException {
+    this.emulator = new HeadlessEmulator(
+            TimingProfile.SPEC128,
+            HeadlessEmulator.loadRom(null),
+            this.boardMode,
+            this.contendedRam
+    );
+    this.emulator.runFrames(BOOT_FRAMES);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.emulator.dispose();
+  }
+
+  @Benchmark
+  public long frame() {
+    this.emulator.runFrame();
+    return this.emulator.getFrameCounter();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.bench;
+
+import com.igormaznitsa.zxpoly.components.BoardMode;
+import com.igormaznitsa.zxpoly.components.video.VideoController;
+import com.igormaznitsa.zxpoly.components.video.timings.TimingProfile;
+import com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter;
+import com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilterChain;
+import com.igormaznitsa.zxpoly.headless.HeadlessEmulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application of TV filter chains to a rendered frame. The legacy path passes RGB byte arrays
+ * through filters one by one as it is made for screenshots and animation, the pipeline path
+ * processes the ARGB image by strips as it is made for screen rendering and video streaming.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TvFilterBenchmark {
+
+  @Param({"GRAYSCALE", "BLACKWHITE", "OLDTV", "AMBERCRT", "GREENCRT", "GAUSSIAN_BLUR"})
+  public TvFilterChain filterChain;
+
+  private byte[] rgbFrame;
+  private BufferedImage argbFrame;
+  private int argbBorderColor;
+
+  @Setup
+  public void setup() throws IOException {
+    final HeadlessEmulator emulator = new HeadlessEmulator(
+            TimingProfile.SPEC128,
+            HeadlessEmulator.loadRom(null),
+            BoardMode.ZXPOLY,
+            false
+    );
+    try {
+      final int[] argb = new int[VideoController.SCREEN_WIDTH * VideoController.SCREEN_HEIGHT];
+      emulator.setFrameListener((frameIndex, argbPixels) -> System.arraycopy(argbPixels, 0, argb, 0, argb.length));
+      emulator.runFrames(150);
+
+      this.argbFrame = new BufferedImage(VideoController.SCREEN_WIDTH, VideoController.SCREEN_HEIGHT,
+              BufferedImage.TYPE_INT_ARGB);
+      System.arraycopy(argb, 0, ((DataBufferInt) this.argbFrame.getRaster().getDataBuffer()).getData(), 0,
+              argb.length);
+
+      this.rgbFrame = new byte[argb.length * 3];
+      int j = 0;
+      for (final int value : argb) {
+        this.rgbFrame[j++] = (byte) (value >> 16);
+        this.rgbFrame[j++] = (byte) (value >> 8);
+        this.rgbFrame[j++] = (byte) value;
+      }
+      this.argbBorderColor = Color.WHITE.getRGB();
+    } finally {
+      emulator.dispose();
+    }
+  }
+
+  @Benchmark
+  public byte[] applyLegacy() {
+    byte[] rgb = this.rgbFrame;
+    for (final TvFilter filter : this.filterChain.getFilterChain()) {
+      rgb = filter.apply(true, rgb, this.argbBorderColor);
+    }
+    return rgb;
+  }
+
+  @Benchmark
+  public BufferedImage applyPipeline() {
+    return this.filterChain.apply(this.argbFrame, this.argbBorderColor);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.bench;
+
+import com.igormaznitsa.zxpoly.components.BoardMode;
+import com.igormaznitsa.zxpoly.components.ZxPolyConstants;
+import com.igormaznitsa.zxpoly.components.video.VideoController;
+import com.igormaznitsa.zxpoly.components.video.timings.TimingProfile;
+import com.igormaznitsa.zxpoly.headless.HeadlessEmulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh of video buffer from video memory for every video mode, both for unchanged screen and
+ * for forced refresh of all character cells.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class VideoRefreshBenchmark {
+
+  @Param({
+          "ZX48_CPU0",
+          "ZXPOLY_256x192",
+          "ZXPOLY_512x384",
+          "ZXPOLY_256x192_INKPAPER_MASK",
+          "ZXPOLY_256x192_FLASH_MASK",
+          "SPEC256"
+  })
+  public String videoMode;
+
+  private HeadlessEmulator emulator;
+  private VideoController videoController;
+
+  static int findVideoMode(final String name) {
+    try {
+      return ZxPolyConstants.class.getField("VIDEOMODE_" + name).getInt(null);
+    } catch (NoSuchFieldException | IllegalAccessException ex) {
+      throw new IllegalArgumentException("Unknown video mode: " + name, ex);
+    }
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    this.emulator = new HeadlessEmulator(
+            TimingProfile.SPEC128,
+            HeadlessEmulator.loadRom(null),
+            this.videoMode.startsWith("SPEC256") ? BoardMode.SPEC256 : BoardMode.ZXPOLY,
+            false
+    );
+    // fill video memory by the test ROM screen
+    this.emulator.runFrames(150);
+    this.videoController = this.emulator.getVideoController();
+    this.videoController.setVideoMode(findVideoMode(this.videoMode));
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.emulator.dispose();
+  }
+
+  @Benchmark
+  public boolean refreshUnchanged() {
+    return this.videoController.syncUpdateBuffer(VideoController.LineRenderMode.ALL);
+  }
+
+  @Benchmark
+  public boolean refreshAll() {
+    this.emulator.getMotherboard().getScreenCellTracker().markAll();
+    return this.videoController.syncUpdateBuffer(VideoController.LineRenderMode.ALL);
+  }
+}
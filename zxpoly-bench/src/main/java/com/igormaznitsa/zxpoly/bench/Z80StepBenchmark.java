@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.bench;
+
+import com.igormaznitsa.z80.Z80;
+import com.igormaznitsa.z80.Z80CPUBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw Z80 core throughput, every operation is one executed instruction or prefix.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Z80StepBenchmark {
+
+  private static final int STEPS = 100_000;
+
+  @Param({"ALU", "LDIR", "INDEXED"})
+  public CodeBlock codeBlock;
+
+  @Param({"false", "true"})
+  public boolean tableDecoding;
+
+  private Z80 cpu;
+
+  @Setup
+  public void setup() {
+    final byte[] memory = new byte[0x10000];
+    final byte[] code = this.codeBlock.code;
+    System.arraycopy(code, 0, memory, 0, code.length);
+    for (int i = 0x4000; i < memory.length; i++) {
+      memory[i] = (byte) (i * 31 + (i >> 8));
+    }
+    this.cpu = new Z80(new RamBus(memory), this.tableDecoding);
+    this.cpu.doReset();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public int step() {
+    final Z80 z80 = this.cpu;
+    int tstates = 0;
+    for (int i = 0; i < STEPS; i++) {
+      z80.step(0, Z80.SIGNAL_IN_ALL_INACTIVE);
+      tstates += z80.getStepTstates();
+    }
+    return tstates;
+  }
+
+  public enum CodeBlock {
+    /**
+     * ZEXALL like loop of ALU, flag, stack and CB prefixed operations.
+     */
+    ALU(
+            0x31, 0xF0, 0xFF, // LD SP,#FFF0
+            0x21, 0x00, 0x40, // LD HL,#4000
+            0x06, 0x00, // LD B,0
+            0x7E, 0x80, 0xA9, 0x07, 0x8B, 0x9A, 0x27, 0x4F, // LD A,(HL); ADD A,B; XOR C; RLCA; ADC A,E; SBC A,D; DAA; LD C,A
+            0xFE, 0x55, 0xF5, 0xD1, 0x23, // CP #55; PUSH AF; POP DE; INC HL
+            0xCB, 0x12, 0xCB, 0x3B, 0xCB, 0x5F, // RL D; SRL E; BIT 3,A
+            0x10, 0xEB, // DJNZ #0008
+            0xC3, 0x03, 0x00 // JP #0003
+    ),
+    /**
+     * Copy of screen sized block by LDIR.
+     */
+    LDIR(
+            0x21, 0x00, 0x40, // LD HL,#4000
+            0x11, 0x00, 0x80, // LD DE,#8000
+            0x01, 0x00, 0x1B, // LD BC,#1B00
+            0xED, 0xB0, // LDIR
+            0xC3, 0x00, 0x00 // JP #0000
+    ),
+    /**
+     * Loop of IX and IY indexed operations including DDCB and FDCB ones.
+     */
+    INDEXED(
+            0x31, 0xF0, 0xFF, // LD SP,#FFF0
+            0xDD, 0x21, 0x00, 0x50, // LD IX,#5000
+            0xFD, 0x21, 0x00, 0x60, // LD IY,#6000
+            0x06, 0x00, // LD B,0
+            0xDD, 0x7E, 0x01, 0xFD, 0x86, 0xFE, // LD A,(IX+1); ADD A,(IY-2)
+            0xDD, 0x77, 0x03, 0xFD, 0x34, 0x04, // LD (IX+3),A; INC (IY+4)
+            0xDD, 0xCB, 0x05, 0x06, 0xFD, 0xCB, 0x06, 0xD6, // RLC (IX+5); SET 2,(IY+6)
+            0xDD, 0xCB, 0x07, 0x7E, // BIT 7,(IX+7)
+            0xDD, 0x23, 0xFD, 0x2B, // INC IX; DEC IY
+            0x10, 0xE2, // DJNZ #000D
+            0xC3, 0x00, 0x00 // JP #0000
+    );
+
+    private final byte[] code;
+
+    CodeBlock(final int... code) {
+      this.code = new byte[code.length];
+      for (int i = 0; i < code.length; i++) {
+        this.code[i] = (byte) code[i];
+      }
+    }
+  }
+
+  static final class RamBus implements Z80CPUBus {
+    private final byte[] memory;
+    private final byte[] ports = new byte[0x10000];
+
+    RamBus(final byte[] memory) {
+      this.memory = memory;
+    }
+
+    @Override
+    public byte readMemory(final Z80 cpu, final int ctx, final int address, final boolean m1, final boolean cmdOrPrefix) {
+      return this.memory[address];
+    }
+
+    @Override
+    public void writeMemory(final Z80 cpu, final int ctx, final int address, final byte data) {
+      // keep code and the LDIR source area constant
+      if (address >= 0x4000) {
+        this.memory[address] = data;
+      }
+    }
+
+    @Override
+    public int readPtr(final Z80 cpu, final int ctx, final int reg, final int valueInReg) {
+      return valueInReg;
+    }
+
+    @Override
+    public int readSpecRegValue(final Z80 cpu, final int ctx, final int reg, final int origValue) {
+      return origValue;
+    }
+
+    @Override
+    public int readSpecRegPairValue(final Z80 cpu, final int ctx, final int regPair, final int origValue) {
+      return origValue;
+    }
+
+    @Override
+    public int readRegPortAddr(final Z80 cpu, final int ctx, final int reg, final int valueInReg) {
+      return valueInReg;
+    }
+
+    @Override
+    public int postProcessXor(final Z80 cpu, final int ctx, final int regIndex, final int valueA, final int value, final int result) {
+      return result;
+    }
+
+    @Override
+    public int postProcessAnd(final Z80 cpu, final int ctx, final int regIndex, final int valueA, final int value, final int result) {
+      return result;
+    }
+
+    @Override
+    public int postProcessOr(final Z80 cpu, final int ctx, final int regIndex, final int valueA, final int value, final int result) {
+      return result;
+    }
+
+    @Override
+    public byte readPort(final Z80 cpu, final int ctx, final int port) {
+      return this.ports[port];
+    }
+
+    @Override
+    public void writePort(final Z80 cpu, final int ctx, final int port, final byte data) {
+      this.ports[port] = data;
+    }
+
+    @Override
+    public byte onCPURequestDataLines(final Z80 cpu, final int ctx) {
+      return (byte) 0xFF;
+    }
+
+    @Override
+    public void onRETI(final Z80 cpu, final int ctx) {
+    }
+
+    @Override
+    public void onInterrupt(final Z80 cpu, final int ctx, final boolean nmi) {
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.igormaznitsa.zxpoly.components.BoardMode;
+import com.igormaznitsa.zxpoly.components.video.VideoController;
+import com.igormaznitsa.zxpoly.components.video.timings.TimingProfile;
+import com.igormaznitsa.zxpoly.headless.HeadlessEmulator;
+import com.igormaznitsa.zxpoly.headless.WavSoundWriter;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ZXPolyHeadless {
+
+  private static final int FRAMES_PER_SECOND = 50;
+
+  private static void printHelp() {
+    System.out.println(ZXPoly.APP_TITLE + ' ' + ZXPoly.APP_VERSION + " (headless)");
+    System.out.println("Usage: ZXPolyHeadless [options]");
+    System.out.println("  --rom <file>       ROM image file, embedded test ROM if not provided");
+    System.out.println("  --snapshot <file>  snapshot to load (z80, sna, zxp, zip)");
+    System.out.println("  --mode <mode>      board mode ZXPOLY, ZX128 or SPEC256 (default ZXPOLY)");
+    System.out.println("  --frames <number>  number of frames to execute (default 500)");
+    System.out.println("  --seconds <number> emulated time to execute, alternative to --frames");
+    System.out.println("  --tape <file>      tape to play (tap, wav)");
+    System.out.println("  --wav <file>       save mixed sound as WAV");
+    System.out.println("  --screen <file>    save the last frame as PNG");
+    System.out.println("  --contended        turn on contended memory emulation");
+    System.out.println("  --parallel <lines> execute ZX-Poly modules on threads, synchronized every number of ULA lines");
+  }
+
+  public static void main(final String... args) throws Exception {
+    System.setProperty("java.awt.headless", "true");
+
+    String romPath = null;
+    String snapshotPath = null;
+    String screenPath = null;
+    String tapePath = null;
+    String wavPath = null;
+    BoardMode mode = BoardMode.ZXPOLY;
+    long frames = 500L;
+    boolean contended = false;
+    int parallelLines = 0;
+
+    for (int i = 0; i < args.length; i++) {
+      final String arg = args[i];
+      switch (arg) {
+        case "--rom":
+          romPath = args[++i];
+          break;
+        case "--snapshot":
+          snapshotPath = args[++i];
+          break;
+        case "--mode":
+          mode = BoardMode.valueOf(args[++i].toUpperCase(Locale.ENGLISH));
+          break;
+        case "--frames":
+          frames = Long.parseLong(args[++i]);
+          break;
+        case "--seconds":
+          frames = Math.round(Double.parseDouble(args[++i]) * FRAMES_PER_SECOND);
+          break;
+        case "--tape":
+          tapePath = args[++i];
+          break;
+        case "--wav":
+          wavPath = args[++i];
+          break;
+        case "--screen":
+          screenPath = args[++i];
+          break;
+        case "--contended":
+          contended = true;
+          break;
+        case "--parallel":
+          parallelLines = Integer.parseInt(args[++i]);
+          break;
+        case "--help":
+        case "-h": {
+          printHelp();
+          return;
+        }
+        default: {
+          System.err.println("Unexpected argument: " + arg);
+          printHelp();
+          System.exit(1);
+          return;
+        }
+      }
+    }
+
+    final HeadlessEmulator emulator = new HeadlessEmulator(
+            TimingProfile.SPEC128,
+            HeadlessEmulator.loadRom(romPath),
+            mode,
+            contended
+    );
+    WavSoundWriter wavWriter = null;
+    try {
+      emulator.getMotherboard().setParallelModuleStepping(parallelLines);
+      if (snapshotPath != null) {
+        emulator.loadSnapshot(new File(snapshotPath));
+      }
+      if (tapePath != null) {
+        emulator.loadTape(new File(tapePath));
+      }
+      if (wavPath != null) {
+        wavWriter = new WavSoundWriter(new File(wavPath), emulator.getMotherboard().getBeeper().getAudioFormat());
+        emulator.setSoundListener(wavWriter);
+      }
+
+      final AtomicReference<int[]> lastFrame = new AtomicReference<>();
+
+      final long start = System.nanoTime();
+      if (screenPath != null && frames > 0) {
+        // render only the last frame
+        emulator.runFrames(frames - 1);
+        emulator.setFrameListener((frameIndex, argbPixels) -> lastFrame.set(argbPixels.clone()));
+        emulator.runFrame();
+      } else {
+        emulator.runFrames(frames);
+      }
+      final long spentNanos = Math.max(1L, System.nanoTime() - start);
+
+      System.out.printf(Locale.ENGLISH, "Executed %d frame(s) in %d ms, %.1f fps (x%.2f of real time)%n",
+              frames,
+              spentNanos / 1_000_000L,
+              frames * 1.0e9d / spentNanos,
+              (frames * 20_000_000L) / (double) spentNanos);
+
+      if (wavWriter != null) {
+        emulator.setSoundListener(null);
+        wavWriter.close();
+        System.out.printf(Locale.ENGLISH, "Saved %.2f s of sound%n", wavWriter.getDurationSeconds());
+        wavWriter = null;
+      }
+
+      final int[] screen = lastFrame.get();
+      if (screen != null) {
+        final BufferedImage image = new BufferedImage(VideoController.SCREEN_WIDTH, VideoController.SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, VideoController.SCREEN_WIDTH, VideoController.SCREEN_HEIGHT, screen, 0, VideoController.SCREEN_WIDTH);
+        ImageIO.write(image, "png", new File(screenPath));
+      }
+    } finally {
+      if (wavWriter != null) {
+        wavWriter.close();
+      }
+      emulator.dispose();
+    }
+  }
+}
@@ -21,6 +21,7 @@ import com.igormaznitsa.z80.Z80;
 import com.igormaznitsa.zxpoly.animeencoders.AGifEncoder;
 import com.igormaznitsa.zxpoly.animeencoders.AnimatedGifTunePanel;
 import com.igormaznitsa.zxpoly.animeencoders.AnimationEncoder;
+import com.igormaznitsa.zxpoly.animeencoders.AsyncAnimationEncoder;
 import com.igormaznitsa.zxpoly.components.*;
 import com.igormaznitsa.zxpoly.components.betadisk.BetaDiscInterface;
 import com.igormaznitsa.zxpoly.components.betadisk.TrDosDisk;
@@ -38,7 +39,6 @@ import com.igormaznitsa.zxpoly.tracer.TraceCpuForm;
 import com.igormaznitsa.zxpoly.trainers.AbstractTrainer;
 import com.igormaznitsa.zxpoly.trainers.TrainerPok;
 import com.igormaznitsa.zxpoly.ui.*;
-import com.igormaznitsa.zxpoly.utils.Timer;
 import com.igormaznitsa.zxpoly.utils.*;
 import com.igormaznitsa.zxpspritecorrector.SpriteCorrectorMainFrame;
 import com.igormaznitsa.zxpspritecorrector.files.plugins.AbstractFilePlugin;
@@ -89,6 +89,7 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
 
   public static final Logger LOGGER = Logger.getLogger("UI");
   public static final Duration TIMER_INT_DELAY_MILLISECONDS = Duration.ofMillis(20);
+  private static final int ANIMATION_FRAME_QUEUE_SIZE = 8;
   private static final Icon ICO_MOUSE = new ImageIcon(Utils.loadIcon("mouse.png"));
   private static final Icon ICO_MOUSE_DIS =
           UIManager.getLookAndFeel().getDisabledIcon(null, ICO_MOUSE);
@@ -162,7 +163,7 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
   private final AtomicReference<AnimationEncoder> currentAnimationEncoder = new AtomicReference<>();
   private final Motherboard board;
   private final ZxVideoStreamer videoStreamer;
-  private final Timer wallClock = new Timer(TIMER_INT_DELAY_MILLISECONDS);
+  private final FrameScheduler frameScheduler = new FrameScheduler(TIMER_INT_DELAY_MILLISECONDS);
   private final Runnable traceWindowsUpdater = new Runnable() {
 
     @Override
@@ -386,6 +387,25 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
             allowKempstonMouse,
             vkbdContainer
     );
+    if (AppOptions.getInstance().isParallelModules()) {
+      this.board.setParallelModuleStepping(1);
+    }
+    this.board.getVideoController().setScanlineRendering(AppOptions.getInstance().isScanlineRendering());
+    this.board.setParallelGfxCores(AppOptions.getInstance().isParallelGfxCores());
+    if (AppOptions.getInstance().isSoundDrivenClock()) {
+      final Beeper beeper = this.board.getBeeper();
+      this.frameScheduler.setAudioClock(new FrameScheduler.AudioClock() {
+        @Override
+        public boolean isAvailable() {
+          return beeper.isPlaybackClock();
+        }
+
+        @Override
+        public boolean isBufferFilled() {
+          return beeper.isPlaybackBufferFilled();
+        }
+      });
+    }
     this.board.reset();
     this.menuOptionsZX128Mode.setSelected(this.board.getBoardMode() != BoardMode.ZXPOLY);
     this.menuOptionsTurbo.setSelected(this.turboMode);
@@ -734,7 +754,7 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
   }
 
   private void mainLoop() {
-    this.wallClock.next();
+    this.frameScheduler.reset();
     int countdownToNotifyRepaint = 0;
     int countdownToAnimationSave = 0;
 
@@ -748,12 +768,13 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
     while (!Thread.currentThread().isInterrupted()) {
       final int prevViFlags = viFlags;
       boolean notifyRepaintScreen = false;
+      boolean waitNextFrame = false;
       if (stepSemaphor.tryLock()) {
         try {
           int frameTiStates = this.board.getFrameTiStates();
           final boolean inTurboMode = this.turboMode;
           final boolean tiStatesForIntExhausted = frameTiStates >= this.timingProfile.ulaFrameTact;
-          final boolean intTickForWallClockReached = this.wallClock.completed();
+          final boolean intTickForWallClockReached = this.frameScheduler.isFrameTimeReached(tiStatesForIntExhausted);
 
           final boolean doCpuIntTick;
           if (intTickForWallClockReached) {
@@ -769,7 +790,7 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
             } else {
               doCpuIntTick = false;
             }
-            this.wallClock.next();
+            this.frameScheduler.nextFrame();
             if (!tiStatesForIntExhausted) {
               this.onSlownessDetected(this.timingProfile.ulaFrameTact - frameTiStates);
             }
@@ -794,6 +815,7 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
 
           if (frameTiStates >= this.timingProfile.ulaFrameTact) {
             viFlags |= VFLAG_BLINK_BORDER;
+            waitNextFrame = !inTurboMode;
           }
 
           if (intTickForWallClockReached) {
@@ -815,9 +837,13 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
               countdownToAnimationSave = 0;
             } else {
               countdownToAnimationSave = theAnimationEncoder.getIntsBetweenFrames();
+              final VideoController videoController = this.board.getVideoController();
+              final int borderColorIndex = videoController.getPortFE() & 7;
               try {
-                theAnimationEncoder
-                        .saveFrame(board.getVideoController().makeCopyOfVideoBuffer(true));
+                // filters are applied by encoder, async encoder makes that on own thread
+                theAnimationEncoder.saveFrame(
+                        () -> videoController.makeCopyOfVideoBuffer(false),
+                        argb -> videoController.applyFilters(argb, borderColorIndex));
               } catch (IOException ex) {
                 LOGGER.warning("Can't write animation frame: " + ex.getMessage());
               }
@@ -846,8 +872,8 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
         }
       } else {
         final int frameTiStates = this.board.getFrameTiStates();
-        if (this.wallClock.completed()) {
-          this.wallClock.next();
+        if (this.frameScheduler.isFrameTimeReached(frameTiStates >= this.timingProfile.ulaFrameTact)) {
+          this.frameScheduler.nextFrame();
           this.videoStreamer.onWallclockInt();
           this.board.dryIntTickOnWallClockTime(frameTiStates >= this.timingProfile.ulaFrameTact, true, frameTiStates);
           this.board.startNewFrame();
@@ -858,10 +884,19 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
           this.board.dryIntTickOnWallClockTime(frameTiStates >= this.timingProfile.ulaFrameTact, true, frameTiStates);
         }
       }
-      Thread.onSpinWait();
+      if (waitNextFrame) {
+        // all ti-states of the frame are executed, sleep till the frame end
+        this.frameScheduler.awaitFrameTime();
+      } else {
+        Thread.onSpinWait();
+      }
     }
   }
 
+  public FrameScheduler getFrameScheduler() {
+    return this.frameScheduler;
+  }
+
   private void onSlownessDetected(final long remainTstates) {
     LOGGER.warning(String.format("Slowness detected: %.02f%%",
             (float) remainTstates / (float) this.timingProfile.ulaFrameTact * 100.0f));
@@ -1335,6 +1370,16 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
       indicatorCpu1.updateForState(board.getCpuActivity(1));
       indicatorCpu2.updateForState(board.getCpuActivity(2));
       indicatorCpu3.updateForState(board.getCpuActivity(3));
+      final Beeper beeper = board.getBeeper();
+      if (beeper.isActive()) {
+        panelIndicators.setToolTipText(String.format(Locale.ENGLISH,
+                "%.1f fps, jitter %.2f ms, sound buffer %d ms, underruns %d, overruns %d",
+                this.frameScheduler.getAchievedFps(), this.frameScheduler.getJitterMillis(),
+                beeper.getBufferedMillis(), beeper.getUnderruns(), beeper.getOverruns()));
+      } else {
+        panelIndicators.setToolTipText(String.format(Locale.ENGLISH, "%.1f fps, jitter %.2f ms",
+                this.frameScheduler.getAchievedFps(), this.frameScheduler.getJitterMillis()));
+      }
     }
     updateTracerCheckBoxes();
   }
@@ -2388,11 +2433,11 @@ public final class MainForm extends javax.swing.JFrame implements ActionListener
         this.menuViewVideoFilter.setEnabled(false);
         this.lastAnimGifOptions = panel.getValue();
         try {
-          encoder = new AGifEncoder(
+          encoder = new AsyncAnimationEncoder(new AGifEncoder(
                   new File(this.lastAnimGifOptions.filePath),
                   this.board.getVideoController().findCurrentPalette(),
                   this.lastAnimGifOptions.frameRate,
-                  this.lastAnimGifOptions.repeat);
+                  this.lastAnimGifOptions.repeat), ANIMATION_FRAME_QUEUE_SIZE);
         } catch (IOException ex) {
           this.menuViewVideoFilter.setEnabled(true);
           LOGGER.log(Level.SEVERE, "Can't create GIF encoder: " + ex.getMessage(), ex);
@@ -55,6 +55,11 @@ public final class AGifEncoder implements AnimationEncoder {
     this.gifEncoder.addFrame(rgbPixels);
   }
 
+  @Override
+  public void repeatLastFrame(final int count) throws IOException {
+    this.gifEncoder.repeatLastFrame(count);
+  }
+
   @Override
   public void close() throws IOException {
     try {
@@ -7,7 +7,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.time.Duration;
 import java.util.Objects;
-import java.util.OptionalInt;
 
 /**
  * Class AnimatedGifEncoder - Encodes a GIF file consisting of one or more
@@ -112,16 +111,37 @@ final class AdaptedAnimatedGifEncoder {
         dropPreparedFrame();
         System.arraycopy(this.newFrameIndexes, 0, this.preparedFrameIndexes, 0, this.preparedFrameIndexes.length);
       } else {
-        final int nextDelayValue = this.preparedFrameDelay + this.delay;
-        if ((nextDelayValue & 0xFFFF_0000) != 0) {
-          dropPreparedFrame();
-        } else {
-          this.preparedFrameDelay += this.delay;
-        }
+        extendPreparedFrame();
+      }
+    }
+  }
+
+  /**
+   * Repeats the last added frame without processing of its pixels, just the delay of the prepared
+   * frame is extended.
+   *
+   * @param count number of repeats
+   */
+  public void repeatLastFrame(final int count) throws IOException {
+    if (!this.started) {
+      throw new IllegalStateException("Not started yet");
+    }
+    if (!this.firstFrame) {
+      for (int i = 0; i < count; i++) {
+        extendPreparedFrame();
       }
     }
   }
 
+  private void extendPreparedFrame() throws IOException {
+    final int nextDelayValue = this.preparedFrameDelay + this.delay;
+    if ((nextDelayValue & 0xFFFF_0000) != 0) {
+      dropPreparedFrame();
+    } else {
+      this.preparedFrameDelay += this.delay;
+    }
+  }
+
   private void dropPreparedFrame() throws IOException {
     writeGraphicCtrlExt(this.preparedFrameDelay); // write graphic control extension
     writeImageDesc(); // image descriptor
@@ -134,10 +154,10 @@ final class AdaptedAnimatedGifEncoder {
     for (int i = 0; i < this.newFrameIndexes.length; i++) {
       final byte prev = this.newFrameIndexes[i];
       final int rgb = argb[i] & 0xFF_FF_FF;
-      final OptionalInt index = this.mapRgb2PaletteIndex.get(rgb);
+      final int index = this.mapRgb2PaletteIndex.get(rgb, -1);
       final byte newValue;
-      if (index.isPresent()) {
-        newValue = (byte) index.getAsInt();
+      if (index >= 0) {
+        newValue = (byte) index;
       } else {
         int found = 0;
         double distance = Double.MAX_VALUE;
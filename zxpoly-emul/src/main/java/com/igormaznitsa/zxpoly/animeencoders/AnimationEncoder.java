@@ -18,11 +18,35 @@
 package com.igormaznitsa.zxpoly.animeencoders;
 
 import java.io.IOException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 public interface AnimationEncoder {
 
   void saveFrame(int[] frameAsRgbPixelBuffer) throws IOException;
 
+  /**
+   * Save frame made by supplier and then processed by processor. The supplier can be not called if
+   * the frame is not needed, the processor can be called later on another thread.
+   *
+   * @param frameMaker     supplier of RGB pixel buffer of the frame
+   * @param frameProcessor processor of made buffer, it returns buffer to be saved
+   * @throws IOException if the frame can't be written
+   */
+  default void saveFrame(final Supplier<int[]> frameMaker, final UnaryOperator<int[]> frameProcessor)
+          throws IOException {
+    this.saveFrame(frameProcessor.apply(frameMaker.get()));
+  }
+
+  /**
+   * Repeat the last saved frame, it is the same as saving the frame again but without processing
+   * of its pixels. Does nothing if there is no saved frame yet.
+   *
+   * @param count number of repeats
+   * @throws IOException if the frame can't be written
+   */
+  void repeatLastFrame(int count) throws IOException;
+
   int getIntsBetweenFrames();
 
   void close() throws IOException;
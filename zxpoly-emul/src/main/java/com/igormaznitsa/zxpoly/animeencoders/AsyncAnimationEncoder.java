@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.animeencoders;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Encoder which passes frames to wrapped encoder on own thread through bounded queue, so that the
+ * calling thread is never blocked by encoding and file writing. Frames are processed on the
+ * encoder thread too. If the queue is full then the frame is dropped without making it and the
+ * previous frame is repeated instead, so that timing of animation is kept. The wrapped encoder is
+ * touched only by the encoder thread, it is closed there after the end marker.
+ */
+public final class AsyncAnimationEncoder implements AnimationEncoder {
+
+  private static final Logger LOGGER = Logger.getLogger("AnimEncoder");
+
+  private final AnimationEncoder encoder;
+  private final BlockingQueue<Frame> queue;
+  private final Thread thread;
+
+  private volatile IOException workerError;
+  private volatile long encodedFrames;
+  private volatile boolean closed;
+
+  private int droppedSinceQueued;
+  private long queuedFrames;
+  private long droppedFrames;
+
+  public AsyncAnimationEncoder(final AnimationEncoder encoder, final int queueSize) {
+    this.encoder = encoder;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.thread = new Thread(this::workerLoop, "zxp-anim-encoder-" + Long.toHexString(System.nanoTime()));
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  @Override
+  public int getIntsBetweenFrames() {
+    return this.encoder.getIntsBetweenFrames();
+  }
+
+  @Override
+  public void saveFrame(final int[] frameAsRgbPixelBuffer) throws IOException {
+    this.saveFrame(() -> frameAsRgbPixelBuffer, UnaryOperator.identity());
+  }
+
+  @Override
+  public void repeatLastFrame(final int count) throws IOException {
+    final IOException error = this.workerError;
+    if (error != null) {
+      throw error;
+    }
+    if (!this.closed) {
+      this.droppedSinceQueued += count;
+    }
+  }
+
+  @Override
+  public void saveFrame(final Supplier<int[]> frameMaker, final UnaryOperator<int[]> frameProcessor)
+          throws IOException {
+    final IOException error = this.workerError;
+    if (error != null) {
+      throw error;
+    }
+    if (this.closed) {
+      return;
+    }
+    if (this.queue.remainingCapacity() > 0
+            && this.queue.offer(new Frame(frameMaker.get(), frameProcessor, this.droppedSinceQueued))) {
+      this.droppedSinceQueued = 0;
+      this.queuedFrames++;
+    } else {
+      this.droppedSinceQueued++;
+      this.droppedFrames++;
+    }
+  }
+
+  private void workerLoop() {
+    try {
+      while (true) {
+        final Frame frame = this.queue.take();
+        if (this.workerError == null) {
+          try {
+            if (frame.repeatPrevious > 0) {
+              this.encoder.repeatLastFrame(frame.repeatPrevious);
+            }
+            if (frame.rgb != null) {
+              this.encoder.saveFrame(frame.processor.apply(frame.rgb));
+              this.encodedFrames++;
+            }
+          } catch (Throwable ex) {
+            // any error stops encoding, but the queue is still drained up to the end marker
+            this.workerError = toIOException(ex);
+          }
+        }
+        if (frame.rgb == null) {
+          break;
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        this.encoder.close();
+      } catch (Throwable ex) {
+        if (this.workerError == null) {
+          this.workerError = toIOException(ex);
+        }
+      }
+    }
+  }
+
+  private static IOException toIOException(final Throwable error) {
+    return error instanceof IOException
+            ? (IOException) error : new IOException("Error during frame encoding", error);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    boolean interrupted = false;
+    // end marker carries dropped tail frames, the worker drains the queue until the marker
+    final Frame end = new Frame(null, null, this.droppedSinceQueued);
+    boolean endQueued = false;
+    while (!endQueued && this.thread.isAlive()) {
+      try {
+        endQueued = this.queue.offer(end, 100L, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    while (this.thread.isAlive()) {
+      try {
+        this.thread.join();
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    LOGGER.log(Level.INFO, "Animation frames queued: {0}, encoded: {1}, dropped: {2}",
+            new Object[] {this.queuedFrames, this.encodedFrames, this.droppedFrames});
+    final IOException error = this.workerError;
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  private static final class Frame {
+    private final int[] rgb;
+    private final UnaryOperator<int[]> processor;
+    private final int repeatPrevious;
+
+    private Frame(final int[] rgb, final UnaryOperator<int[]> processor, final int repeatPrevious) {
+      this.rgb = rgb;
+      this.processor = processor;
+      this.repeatPrevious = repeatPrevious;
+    }
+  }
+}
@@ -23,6 +23,8 @@ public interface IoDevice extends ZxPolyConstants {
   int NOTIFICATION_PRESTEP = 1;
   int NOTIFICATION_POSTSTEP = 2;
 
+  int NO_EVENT = Integer.MAX_VALUE;
+
   Motherboard getMotherboard();
 
   default void init() {
@@ -43,9 +45,45 @@ public interface IoDevice extends ZxPolyConstants {
 
   void postStep(int spentTstates);
 
+  /**
+   * Get number of ti-states till the nearest moment when state of the device is changed without
+   * any IO operation, for instance sound level or tape signal. The board can execute CPU without
+   * post-step notifications of devices till the moment. It is called only for devices
+   * with {@link #NOTIFICATION_POSTSTEP}.
+   *
+   * @return number of ti-states, {@link #NO_EVENT} if there is not any expected change
+   */
+  default int getTstatesToNextEvent() {
+    return NO_EVENT;
+  }
+
   String getName();
 
   void doReset();
 
   int getNotificationFlags();
+
+  /**
+   * Check that the device can react on reading of the port in the board mode. It is used to build
+   * port decode tables of the motherboard so that result must not depend on changeable state of the device.
+   *
+   * @param mode board mode
+   * @param port port address
+   * @return true if read of the port can be processed by the device, false otherwise
+   */
+  default boolean isReadPortDecoded(BoardMode mode, int port) {
+    return true;
+  }
+
+  /**
+   * Check that the device can react on writing into the port in the board mode. It is used to build
+   * port decode tables of the motherboard so that result must not depend on changeable state of the device.
+   *
+   * @param mode board mode
+   * @param port port address
+   * @return true if write into the port can be processed by the device, false otherwise
+   */
+  default boolean isWritePortDecoded(BoardMode mode, int port) {
+    return true;
+  }
 }
@@ -45,10 +45,15 @@ public final class KempstonMouse extends MouseAdapter implements IoDevice {
   private int pcMouseY;
 
   public KempstonMouse(final Motherboard board) {
-    try {
-      this.robot = new Robot();
-    } catch (AWTException ex) {
-      throw new Error("Can't create robot", ex);
+    if (GraphicsEnvironment.isHeadless()) {
+      // no mouse events in headless mode so robot is not needed
+      this.robot = null;
+    } else {
+      try {
+        this.robot = new Robot();
+      } catch (AWTException ex) {
+        throw new Error("Can't create robot", ex);
+      }
     }
 
     this.board = board;
@@ -218,6 +223,16 @@ public final class KempstonMouse extends MouseAdapter implements IoDevice {
     return NOTIFICATION_PRESTEP;
   }
 
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    return port == 0xFBDF || port == 0xFFDF || port == 0xFADF;
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return false;
+  }
+
   @Override
   public void doReset() {
     this.buttons.set(MOUSE_BUTTONS_NON_ACTIVE);
@@ -364,6 +364,25 @@ public final class KeyboardKempstonAndTapeIn implements IoDevice {
     return NOTIFICATION_PRESTEP | NOTIFICATION_POSTSTEP;
   }
 
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    final int lowPortAddress = port & 0xFF;
+    if (mode == BoardMode.ZXPOLY) {
+      return lowPortAddress == 0xFE || lowPortAddress == 0x1F;
+    } else {
+      if ((lowPortAddress & 1) == 0) {
+        return true;
+      } else {
+        return this.kempstonMouseAllowed ? lowPortAddress == 0x1F : (lowPortAddress & 0b100000) == 0;
+      }
+    }
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return false;
+  }
+
   @Override
   public void preStep(final int frameTiStates, final boolean signalReset, final boolean tstatesIntReached,
                       boolean wallclockInt) {
@@ -694,6 +713,12 @@ public final class KeyboardKempstonAndTapeIn implements IoDevice {
     }
   }
 
+  @Override
+  public int getTstatesToNextEvent() {
+    final TapeSource currentTap = this.getTap();
+    return currentTap == null ? NO_EVENT : (int) Math.min(NO_EVENT, currentTap.getMachineCyclesToNextSignalChange());
+  }
+
   @Override
   public String toString() {
     return this.getName();
@@ -21,6 +21,7 @@ import com.igormaznitsa.z80.Utils;
 import com.igormaznitsa.z80.Z80;
 import com.igormaznitsa.zxpoly.components.betadisk.BetaDiscInterface;
 import com.igormaznitsa.zxpoly.components.snd.*;
+import com.igormaznitsa.zxpoly.components.video.ScreenCellTracker;
 import com.igormaznitsa.zxpoly.components.video.VideoController;
 import com.igormaznitsa.zxpoly.components.video.VirtualKeyboardDecoration;
 import com.igormaznitsa.zxpoly.components.video.timings.TimingProfile;
@@ -43,13 +44,17 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   private static final Logger LOGGER = Logger.getLogger("MB");
 
   private static final int SPEC256_GFX_CORES = 8;
+  private static final int SPEC256_GFX_SLICE_LINES = 4;
   private final byte[] contendDelay;
   private final ZxPolyModule[] modules;
   private final Z80[] spec256GfxCores;
   private final IoDevice[] ioDevices;
   private final IoDevice[] ioDevicesPreStep;
   private final IoDevice[] ioDevicesPostStep;
+  private final IoDevice[][][] ioDevicesForReadPort;
+  private final IoDevice[][][] ioDevicesForWritePort;
   private final byte[] ram = new byte[512 * 1024];
+  private final ScreenCellTracker screenCellTracker = new ScreenCellTracker();
   private final VideoController video;
   private final KeyboardKempstonAndTapeIn keyboard;
   private final BetaDiscInterface betaDisk;
@@ -65,7 +70,7 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   private int triggers = TRIGGER_NONE;
   private int intCounter;
   private volatile boolean videoFlashState;
-  private boolean localResetForAllModules;
+  private volatile boolean localResetForAllModules;
   private volatile BoardMode boardMode;
   private int statisticCounter = NUMBER_OF_INT_BETWEEN_STATISTIC_UPDATE;
   private volatile int gfxSyncRegsRecord = 0;
@@ -74,6 +79,13 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   private volatile boolean gfxLeveledAnd = false;
   private int frameTiStatesCounter = 0;
   private final TimingProfile timingProfile;
+  private final Object ioBusLocker = new Object();
+  private volatile ParallelModuleStepper parallelModuleStepper;
+  private volatile int parallelSliceLines;
+  private volatile boolean modulesSliceActive;
+  private volatile ParallelGfxStepper parallelGfxStepper;
+  private ZxPolyModule batchModule;
+  private int batchProcessedTstates;
 
   public Motherboard(
           final TimingProfile timingProfile,
@@ -132,6 +144,8 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     this.ioDevicesPostStep = Arrays.stream(this.ioDevices)
             .filter(x -> (x.getNotificationFlags() & IoDevice.NOTIFICATION_POSTSTEP) != 0)
             .toArray(IoDevice[]::new);
+    this.ioDevicesForReadPort = makePortDecodeTables(this.ioDevices, IoDevice::isReadPortDecoded);
+    this.ioDevicesForWritePort = makePortDecodeTables(this.ioDevices, IoDevice::isWritePortDecoded);
 
     // simulation of garbage in memory after power on
     for (int i = 0; i < this.ram.length; i++) {
@@ -144,6 +158,35 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     }
   }
 
+  /**
+   * Make tables of IO devices for every port in every board mode. Ports with the same set of devices
+   * share the same array.
+   *
+   * @param devices     all IO devices in their order on the bus
+   * @param portDecoder predicate to check that device decodes port in board mode
+   * @return tables of devices, first index is board mode ordinal and second one is port
+   */
+  private static IoDevice[][][] makePortDecodeTables(final IoDevice[] devices, final PortDecoder portDecoder) {
+    final BoardMode[] modes = BoardMode.values();
+    final IoDevice[][][] result = new IoDevice[modes.length][0x10000][];
+    final Map<List<IoDevice>, IoDevice[]> deviceSets = new HashMap<>();
+    final List<IoDevice> buffer = new ArrayList<>();
+    for (final BoardMode mode : modes) {
+      final IoDevice[][] table = result[mode.ordinal()];
+      for (int port = 0; port < 0x10000; port++) {
+        buffer.clear();
+        for (final IoDevice device : devices) {
+          if (portDecoder.isDecoded(device, mode, port)) {
+            buffer.add(device);
+          }
+        }
+        table[port] = deviceSets.computeIfAbsent(new ArrayList<>(buffer), x -> x.toArray(new IoDevice[0]));
+      }
+    }
+    LOGGER.info("Port decode tables ready, detected device sets: " + deviceSets.size());
+    return result;
+  }
+
   private static boolean isContended(final int address, final int port7FFD) {
     final int pageStart = address & 0xC000;
     return pageStart == 0x4000 || (pageStart == 0xC000 && (port7FFD & 1) != 0);
@@ -208,6 +251,7 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
 
   private void _writeRam(final int address, final int value) {
     this.ram[address] = (byte) value;
+    this.screenCellTracker.onHeapWrite(address);
   }
 
   private int _readRam(final int address) {
@@ -236,6 +280,7 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     if (is3D00NotLocked() || force) {
       this.port3D00 = value;
       LOGGER.log(Level.INFO, "set #3D00 to " + Utils.toHex(value));
+      this.invalidateModuleMemorySlots();
 
       if ((value & PORTw_ZXPOLY_RESET) != 0) {
         for (final ZxPolyModule m : this.modules) {
@@ -250,6 +295,95 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     }
   }
 
+  /**
+   * Turn on or off execution of ZX-Poly modules on separate threads. In parallel mode every module
+   * is executed for number of ULA lines and modules are synchronized only on the end of every slice,
+   * IO devices see bus operations of whole slice, INT, NMI and RESET sent between modules and halt
+   * notifications are processed only after slice. Only one line per slice keeps timings close enough
+   * for software which polls modules, bigger slices are for batch execution. Must not be called during step.
+   *
+   * @param linesPerSlice number of ULA lines in slice, zero or negative turns off parallel mode
+   */
+  public void setParallelModuleStepping(final int linesPerSlice) {
+    final ParallelModuleStepper current = this.parallelModuleStepper;
+    if (linesPerSlice > 0) {
+      this.parallelSliceLines = linesPerSlice;
+      if (current == null) {
+        this.parallelModuleStepper = new ParallelModuleStepper(this, this.modules);
+      }
+      LOGGER.info("Parallel module execution, lines per slice: " + linesPerSlice);
+    } else if (current != null) {
+      this.parallelModuleStepper = null;
+      current.dispose();
+    }
+  }
+
+  public boolean isParallelModuleStepping() {
+    return this.parallelModuleStepper != null;
+  }
+
+  /**
+   * Turn on or off execution of SPEC256 GFX cores on separate threads. In parallel mode GFX cores
+   * replay recorded steps of the main CPU for slice of ULA lines, GFX memory is updated at the end
+   * of every slice and before the screen is rendered. Parallel mode is not turned on if scanline
+   * rendering is on, because replayed GFX memory writes would be applied after the beam has passed
+   * them. Must not be called during step.
+   *
+   * @param parallel true to execute GFX cores in parallel
+   */
+  public void setParallelGfxCores(final boolean parallel) {
+    final ParallelGfxStepper current = this.parallelGfxStepper;
+    if (parallel) {
+      if (this.video.isScanlineRendering()) {
+        LOGGER.info("Parallel GFX cores are not used because of scanline rendering");
+      } else if (current == null) {
+        final int sliceTstates = this.timingProfile.ulaLineTime * SPEC256_GFX_SLICE_LINES;
+        final ParallelGfxStepper stepper = new ParallelGfxStepper(this.modules[0], this.spec256GfxCores,
+                sliceTstates / 4 + 16, sliceTstates / 3 + 16);
+        this.modules[0].setGfxStepper(stepper);
+        this.parallelGfxStepper = stepper;
+        LOGGER.info("Parallel GFX cores, lines per slice: " + SPEC256_GFX_SLICE_LINES);
+      }
+    } else if (current != null) {
+      current.flush();
+      this.modules[0].setGfxStepper(null);
+      this.parallelGfxStepper = null;
+      current.dispose();
+    }
+  }
+
+  public boolean isParallelGfxCores() {
+    return this.parallelGfxStepper != null;
+  }
+
+  /**
+   * Complete steps recorded for parallel GFX cores, so that GFX memory and GFX cores are in sync
+   * with the main CPU. Must not be called during step.
+   */
+  public void syncGfxCores() {
+    final ParallelGfxStepper stepper = this.parallelGfxStepper;
+    if (stepper != null) {
+      stepper.flush();
+    }
+  }
+
+  private boolean isGfxSliceEnd(final int fromTstates, final int toTstates) {
+    final int sliceTstates = this.timingProfile.ulaLineTime * SPEC256_GFX_SLICE_LINES;
+    final int bottomBorderStart = this.timingProfile.tstatesInBottomBorderStart;
+    final int frameEnd = this.timingProfile.ulaFrameTact;
+    return fromTstates / sliceTstates != toTstates / sliceTstates
+            || (fromTstates < bottomBorderStart && toTstates >= bottomBorderStart)
+            || (fromTstates < frameEnd && toTstates >= frameEnd);
+  }
+
+  boolean isModulesSliceActive() {
+    return this.modulesSliceActive;
+  }
+
+  boolean isLocalResetForAllModules() {
+    return this.localResetForAllModules;
+  }
+
   public int findFirstDiffAddrInModuleMemory() {
     int addr = -1;
     for (int i = 0; i < 0x20000; i++) {
@@ -337,6 +471,11 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   }
 
   public void syncGfxCpuState(final Z80 sourceCpu) {
+    final ParallelGfxStepper stepper = this.parallelGfxStepper;
+    if (stepper != null) {
+      // recorded steps belong to replaced state
+      stepper.discard();
+    }
     for (final Z80 spec256GfxCore : this.spec256GfxCores) {
       spec256GfxCore.fillByState(sourceCpu);
     }
@@ -358,8 +497,6 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
       this.startNewFrame();
     }
 
-    final int prevFrameInt = this.frameTiStatesCounter;
-
     if (wallclockInt) {
       this.statisticCounter--;
       if (this.statisticCounter <= 0) {
@@ -401,8 +538,19 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
 
       final BoardMode mode = this.getBoardMode();
 
+      int masterSpentTstates = -1;
+
       switch (this.boardMode) {
         case ZXPOLY: {
+          final ParallelModuleStepper moduleStepper = this.parallelModuleStepper;
+          if (moduleStepper != null && this.resetCounter == 0) {
+            masterSpentTstates = this.stepModulesInParallel(moduleStepper, currentMode, signalReset, startNewFrame, resetStatisticsAtModules);
+            if (this.localResetForAllModules) {
+              return result;
+            }
+            break;
+          }
+
           final boolean zx0halt;
           final boolean zx1halt;
           final boolean zx2halt;
@@ -471,7 +619,13 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
         }
         break;
         case ZX128: {
-          modules[0].step(currentMode, signalReset, startNewFrame, resetStatisticsAtModules);
+          final ZxPolyModule masterModule = modules[0];
+          if (!(signalReset || startNewFrame || wallclockInt || this.contendedRam)) {
+            masterSpentTstates = this.runModuleBatch(masterModule);
+          }
+          if (masterSpentTstates < 0) {
+            masterModule.step(currentMode, signalReset, startNewFrame, resetStatisticsAtModules);
+          }
         }
         break;
         case SPEC256: {
@@ -479,35 +633,30 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
           final Z80 mainCpu = masterModule.getCpu();
           masterModule.saveInternalCopyForGfx();
           final int syncRegRecord = this.gfxSyncRegsRecord;
-          for (int i = 0; i < SPEC256_GFX_CORES; i++) {
-            final Z80 gfxCore = this.spec256GfxCores[i];
-            gfxCore.alignRegisterValuesWith(mainCpu, syncRegRecord);
-            masterModule.gfxGpuStep(i + 1, gfxCore);
+          final ParallelGfxStepper gfxStepper = this.parallelGfxStepper;
+          if (gfxStepper == null) {
+            for (int i = 0; i < SPEC256_GFX_CORES; i++) {
+              final Z80 gfxCore = this.spec256GfxCores[i];
+              gfxCore.alignRegisterValuesWith(mainCpu, syncRegRecord);
+              masterModule.gfxGpuStep(i + 1, gfxCore);
+            }
+            masterModule.step(currentMode, signalReset, startNewFrame, resetStatisticsAtModules);
+          } else {
+            gfxStepper.recordStep(syncRegRecord);
+            masterModule.step(currentMode, signalReset, startNewFrame, resetStatisticsAtModules);
+            if (this.isGfxSliceEnd(this.frameTiStatesCounter, this.frameTiStatesCounter + mainCpu.getStepTstates())) {
+              gfxStepper.flush();
+            }
           }
-          masterModule.step(currentMode, signalReset, startNewFrame, resetStatisticsAtModules);
         }
         break;
         default:
           throw new Error("Unexpected board mode: " + this.boardMode);
       }
 
-      this.frameTiStatesCounter += this.modules[0].getCpu().getStepTstates();
-      final int spentTstates = this.frameTiStatesCounter - prevFrameInt;
-
-      final int feValue = this.video.getPortFE();
-      final int levelTapeOut = AMPLITUDE_16[((feValue >> 3) & 1) == 0 ? 0 : 14];
-      final int levelSpeaker = AMPLITUDE_16[((feValue >> 4) & 1) == 0 ? 0 : 15];
-      final int levelTapeIn = AMPLITUDE_16[this.keyboard.isTapeIn() ? 6 : 0];
-
-      final int mixedLevels = Math.min(AMPLITUDE_16[15], levelSpeaker + levelTapeIn + levelTapeOut);
-
-      this.beeper.setChannelValue(CHANNEL_BEEPER, mixedLevels);
-
-      for (final IoDevice device : this.ioDevicesPostStep) {
-        device.postStep(spentTstates);
-      }
-
-      this.beeper.updateState(tstatesIntReached, wallclockInt, spentTstates);
+      final int spentTstates = masterSpentTstates < 0 ? this.modules[0].getCpu().getStepTstates() : masterSpentTstates;
+      this.frameTiStatesCounter += spentTstates;
+      this.processSpentTstates(tstatesIntReached, wallclockInt, spentTstates);
 
       final int curTriggers = this.triggers;
 
@@ -545,13 +694,119 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     return result;
   }
 
+  private void processSpentTstates(final boolean tstatesIntReached, final boolean wallclockInt, final int spentTstates) {
+    final int feValue = this.video.getPortFE();
+    final int levelTapeOut = AMPLITUDE_16[((feValue >> 3) & 1) == 0 ? 0 : 14];
+    final int levelSpeaker = AMPLITUDE_16[((feValue >> 4) & 1) == 0 ? 0 : 15];
+    final int levelTapeIn = AMPLITUDE_16[this.keyboard.isTapeIn() ? 6 : 0];
+
+    final int mixedLevels = Math.min(AMPLITUDE_16[15], levelSpeaker + levelTapeIn + levelTapeOut);
+
+    this.beeper.setChannelValue(CHANNEL_BEEPER, mixedLevels);
+
+    for (final IoDevice device : this.ioDevicesPostStep) {
+      device.postStep(spentTstates);
+    }
+
+    this.beeper.updateState(tstatesIntReached, wallclockInt, spentTstates);
+  }
+
+  /**
+   * Execute module for batch of steps till the end of frame or the nearest event of devices
+   * which get post-step notifications.
+   *
+   * @param module module to be executed
+   * @return ti-states spent since the last IO synchronization or -1 if module must be stepped
+   * @see #syncBatchBeforeIo(ZxPolyModule, boolean)
+   */
+  private int runModuleBatch(final ZxPolyModule module) {
+    int budget = this.timingProfile.ulaFrameTact - this.frameTiStatesCounter;
+    if (budget <= 0) {
+      // turbo mode, execution after end of frame
+      budget = this.timingProfile.ulaLineTime;
+    }
+    for (final IoDevice device : this.ioDevicesPostStep) {
+      budget = min(budget, device.getTstatesToNextEvent());
+    }
+
+    this.batchModule = module;
+    this.batchProcessedTstates = 0;
+    try {
+      final int spent = module.run(budget);
+      return spent < 0 ? spent : spent - this.batchProcessedTstates;
+    } finally {
+      this.batchModule = null;
+    }
+  }
+
+  /**
+   * Called by module before IO operation. If the module is executed in batch then ti-states of
+   * steps completed before the IO operation are processed by devices, so that the operation
+   * meets the same device state as during step by step execution.
+   *
+   * @param module module making IO operation
+   * @param stop   if true then batch should be stopped after the current step
+   */
+  void syncBatchBeforeIo(final ZxPolyModule module, final boolean stop) {
+    if (this.batchModule == module) {
+      final Z80 cpu = module.getCpu();
+      final int spent = cpu.getRunTstates() - this.batchProcessedTstates;
+      if (spent > 0) {
+        this.batchProcessedTstates += spent;
+        this.frameTiStatesCounter += spent;
+        this.processSpentTstates(false, false, spent);
+      }
+      if (stop) {
+        cpu.requestStop();
+      }
+    }
+  }
+
+  private int stepModulesInParallel(final ParallelModuleStepper moduleStepper,
+                                    final BoardMode currentMode,
+                                    final boolean signalReset,
+                                    final boolean startNewFrame,
+                                    final boolean resetStatisticsAtModules) {
+    final int sliceTstates = this.timingProfile.ulaLineTime * this.parallelSliceLines;
+    final int tstatesToInt = this.timingProfile.ulaFrameTact - this.frameTiStatesCounter;
+
+    final int masterSpentTstates;
+    this.modulesSliceActive = true;
+    try {
+      masterSpentTstates = moduleStepper.executeSlice(
+              tstatesToInt > 0 ? min(tstatesToInt, sliceTstates) : sliceTstates,
+              currentMode,
+              signalReset,
+              startNewFrame,
+              resetStatisticsAtModules);
+    } finally {
+      this.modulesSliceActive = false;
+    }
+
+    for (final ZxPolyModule module : this.modules) {
+      module.applyDeferredSignals();
+    }
+
+    if (!this.localResetForAllModules) {
+      for (int i = 0; i < this.modules.length; i++) {
+        final int reg1 = moduleStepper.getHaltNotificationReg1(i);
+        if (reg1 >= 0) {
+          sendHaltNotification(reg1);
+        }
+      }
+    }
+    return masterSpentTstates;
+  }
+
   public RomData getRomData() {
     return this.romData;
   }
 
   private void doModuleHaltNotification(final int moduleIndex) {
-    final ZxPolyModule module = this.modules[moduleIndex];
-    final int reg1 = module.getReg1WrittenData();
+    sendHaltNotification(this.modules[moduleIndex].getReg1WrittenData());
+  }
+
+  private void sendHaltNotification(final int reg1) {
     final boolean sendInt = (reg1 & ZXPOLY_wREG1_HALT_NOTIFY_INT) != 0;
     final boolean sendNmi = (reg1 & ZXPOLY_wREG1_HALT_NOTIFY_NMI) != 0;
     if (sendInt) {
@@ -592,7 +847,9 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   public void setBoardMode(final BoardMode newMode, final boolean doReset) {
     if (this.boardMode != newMode) {
       LOGGER.log(Level.INFO, "Motherboard mode changed to " + newMode);
+      this.syncGfxCores();
       this.boardMode = newMode;
+      this.invalidateModuleMemorySlots();
       if (doReset) {
         this.reset();
       }
@@ -607,14 +864,43 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     return this.video;
   }
 
+  public ScreenCellTracker getScreenCellTracker() {
+    return this.screenCellTracker;
+  }
+
   public int readRam(final ZxPolyModule module, final int address) {
     return this._readRam(address);
   }
 
   public void writeRam(final ZxPolyModule module, final int heapAddress, final int value) {
+    if (this.video.isScanlineRendering() && this.screenCellTracker.isScreenHeapAddress(heapAddress)) {
+      this.syncScanlineBeforeScreenChange();
+    }
     this._writeRam(heapAddress, value);
   }
 
+  /**
+   * Called before change of shown screen, in scanline rendering mode the screen part already
+   * passed by ULA is rendered from not changed state. During parallel slice screen is synchronized
+   * by video controller only after the slice.
+   */
+  void syncScanlineBeforeScreenChange() {
+    if (!this.modulesSliceActive) {
+      this.video.syncScanline(this.getCurrentFrameTiStates());
+    }
+  }
+
+  /**
+   * Get ti-state in frame including steps of the current batch which are not processed yet by devices.
+   *
+   * @return current ti-state in frame
+   */
+  private int getCurrentFrameTiStates() {
+    final ZxPolyModule module = this.batchModule;
+    return module == null ? this.frameTiStatesCounter
+            : this.frameTiStatesCounter + module.getCpu().getRunTstates() - this.batchProcessedTstates;
+  }
+
   private boolean haveModulesSamePositionAndMode() {
     final Z80 cpu0 = this.modules[0].getCpu();
     final int pc = cpu0.getRegister(Z80.REG_PC);
@@ -637,6 +923,16 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   }
 
   public void writeBusIo(final ZxPolyModule module, final int port, final int value) {
+    if (this.modulesSliceActive) {
+      synchronized (this.ioBusLocker) {
+        this.doWriteBusIo(module, port, value);
+      }
+    } else {
+      this.doWriteBusIo(module, port, value);
+    }
+  }
+
+  private void doWriteBusIo(final ZxPolyModule module, final int port, final int value) {
     final int mappedCpu = getMappedCpuIndex();
     final int moduleIndex = module.getModuleIndex();
 
@@ -650,18 +946,18 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
             this._writeRam(destmodule.ramOffset2HeapAddress(destmodule.read7FFD(), port), value);
             destmodule.prepareLocalNmi();
           } else {
-            for (final IoDevice d : this.ioDevices) {
+            for (final IoDevice d : this.ioDevicesForWritePort[BoardMode.ZXPOLY.ordinal()][port]) {
               d.writeIo(module, port, value);
             }
           }
         }
       } else {
-        for (final IoDevice d : this.ioDevices) {
+        for (final IoDevice d : this.ioDevicesForWritePort[BoardMode.ZXPOLY.ordinal()][port]) {
           d.writeIo(module, port, value);
         }
       }
     } else {
-      for (final IoDevice d : this.ioDevices) {
+      for (final IoDevice d : this.ioDevicesForWritePort[this.getBoardMode().ordinal()][port]) {
         d.writeIo(module, port, value);
       }
     }
@@ -679,6 +975,16 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   }
 
   public int readBusIo(final ZxPolyModule module, final int port) {
+    if (this.modulesSliceActive) {
+      synchronized (this.ioBusLocker) {
+        return this.doReadBusIo(module, port);
+      }
+    } else {
+      return this.doReadBusIo(module, port);
+    }
+  }
+
+  private int doReadBusIo(final ZxPolyModule module, final int port) {
     final int mappedCPU = getMappedCpuIndex();
     int result = -1;
 
@@ -689,7 +995,7 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
       destmodule.prepareLocalInt();
     } else {
       IoDevice firstDetectedActiveDevice = null;
-      for (final IoDevice device : this.ioDevices) {
+      for (final IoDevice device : this.ioDevicesForReadPort[this.getBoardMode().ordinal()][port]) {
         final int data = device.readIo(module, port);
         if (data < 0) {
           continue;
@@ -723,9 +1029,21 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     return (port & 1) == 0;
   }
 
-  int contendRam(final int port7FFD, final int address) {
+  private void invalidateModuleMemorySlots() {
+    for (final ZxPolyModule m : this.modules) {
+      m.invalidateMemorySlots();
+    }
+  }
+
+  /**
+   * Get delay for access to contended memory, the caller has already checked that the address is
+   * in contended page.
+   *
+   * @return number of ti-states to be added
+   */
+  int contendRam() {
     int result = 0;
-    if (this.contendedRam && isContended(address, port7FFD)) {
+    if (this.contendedRam) {
       result = this.frameTiStatesCounter < this.timingProfile.ulaFrameTact ? this.contendDelay[this.frameTiStatesCounter] & 0xFF : 0;
     }
     return result;
@@ -761,6 +1079,11 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
     return result;
   }
 
+  @FunctionalInterface
+  private interface PortDecoder {
+    boolean isDecoded(IoDevice device, BoardMode mode, int port);
+  }
+
   public void resetIoDevices() {
     for (final IoDevice device : this.ioDevices) {
       device.doReset();
@@ -768,6 +1091,8 @@ public final class Motherboard implements ZxPolyConstants, SoundLevels {
   }
 
   public void dispose() {
+    this.setParallelModuleStepping(0);
+    this.setParallelGfxCores(false);
     this.beeper.dispose();
   }
 
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.components;
+
+import com.igormaznitsa.z80.Z80;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Executes SPEC256 GFX cores in parallel. The main CPU is the leader, before every its step the
+ * state which GFX cores take from it is recorded into a trace and GFX cores replay the trace later
+ * for whole slice, every GFX core on one of worker threads. GFX cores read code from main memory
+ * so that main memory writes made during the slice are logged and the replay sees memory as it was
+ * at the recorded step. GFX cores write only own byte lane of GFX memory, their IO writes are
+ * ignored and IO reads get value read by the main CPU at the same step.
+ */
+final class ParallelGfxStepper {
+
+  private static final Logger LOGGER = Logger.getLogger("MB");
+
+  private static final int SPIN_LOOPS = Runtime.getRuntime().availableProcessors() > 1 ? 20_000 : 0;
+
+  private static final int CONTEXTS = 9;
+
+  private final ZxPolyModule module;
+  private final Z80[] gfxCores;
+  private final Thread[] workers;
+  private final int threads;
+  private final AtomicInteger activeWorkers = new AtomicInteger();
+
+  private final Z80[] stepMainCpu;
+  private final int[] stepSignals;
+  private final int[] step7FFD;
+  private final boolean[] stepTrdos;
+  private final int[] stepPortValue;
+  private int steps;
+
+  private final byte[] heap;
+  private final boolean[] heapWritten;
+  private final int[] writeAddress;
+  private final int[] writeStep;
+  private final byte[] writeValue;
+  private int writes;
+
+  private final int[] laneStep = new int[CONTEXTS];
+  private final boolean[] laneTrdos = new boolean[CONTEXTS];
+
+  private volatile int sliceGeneration;
+  private volatile boolean disposed;
+  private volatile Throwable workerError;
+
+  private int sliceAlignRegs;
+
+  ParallelGfxStepper(final ZxPolyModule module, final Z80[] gfxCores, final int maxSteps, final int maxWrites) {
+    this.module = module;
+    this.gfxCores = gfxCores;
+
+    this.stepMainCpu = new Z80[maxSteps];
+    for (int i = 0; i < maxSteps; i++) {
+      this.stepMainCpu[i] = new Z80(module.getCpu());
+    }
+    this.stepSignals = new int[maxSteps];
+    this.step7FFD = new int[maxSteps];
+    this.stepTrdos = new boolean[maxSteps];
+    this.stepPortValue = new int[maxSteps];
+
+    this.heap = module.getMotherboard().getHeapRam();
+    this.heapWritten = new boolean[this.heap.length];
+    this.writeAddress = new int[maxWrites];
+    this.writeStep = new int[maxWrites];
+    this.writeValue = new byte[maxWrites];
+
+    this.threads = Math.max(1, Math.min(gfxCores.length, Runtime.getRuntime().availableProcessors()));
+    this.workers = new Thread[this.threads - 1];
+    for (int i = 0; i < this.workers.length; i++) {
+      final int threadIndex = i + 1;
+      final Thread thread = new Thread(() -> this.workerLoop(threadIndex), "zxp-gfx-worker-" + threadIndex);
+      thread.setDaemon(true);
+      this.workers[i] = thread;
+    }
+    for (final Thread thread : this.workers) {
+      thread.start();
+    }
+    LOGGER.info("Started " + this.workers.length + " worker thread(s) for parallel GFX cores");
+  }
+
+  /**
+   * Record state of the main CPU before its step, must be called after GFX signals are saved by the module.
+   *
+   * @param alignRegs registers to be aligned in GFX cores
+   */
+  void recordStep(final int alignRegs) {
+    if (this.steps == this.stepMainCpu.length || alignRegs != this.sliceAlignRegs) {
+      this.flush();
+      this.sliceAlignRegs = alignRegs;
+    }
+    final int step = this.steps++;
+    this.stepMainCpu[step].fillByState(this.module.getCpu());
+    this.stepSignals[step] = this.module.makeGfxSignals();
+    this.step7FFD[step] = this.module.read7FFD();
+    this.stepTrdos[step] = this.module.isTrdosActive();
+    this.stepPortValue[step] = 0xFF;
+  }
+
+  /**
+   * Called before write of the main CPU into heap, keeps old value for GFX cores replaying previous steps.
+   *
+   * @param heapAddress heap address to be written
+   */
+  void onMainWrite(final int heapAddress) {
+    if (this.steps > 0) {
+      if (this.writes == this.writeAddress.length) {
+        this.flush();
+      } else {
+        final int index = this.writes++;
+        this.writeAddress[index] = heapAddress;
+        this.writeStep[index] = this.steps - 1;
+        this.writeValue[index] = this.heap[heapAddress];
+        this.heapWritten[heapAddress] = true;
+      }
+    }
+  }
+
+  void onMainPortRead(final int value) {
+    if (this.steps > 0) {
+      this.stepPortValue[this.steps - 1] = value & 0xFF;
+    }
+  }
+
+  /**
+   * Replay all recorded steps by GFX cores and wait for them.
+   */
+  void flush() {
+    if (this.steps == 0) {
+      return;
+    }
+    this.activeWorkers.set(this.workers.length);
+    this.sliceGeneration++;
+    for (final Thread worker : this.workers) {
+      LockSupport.unpark(worker);
+    }
+
+    this.replayLanes(0);
+
+    int spins = 0;
+    while (this.activeWorkers.get() != 0) {
+      if (this.workerError != null) {
+        throw new Error("Error during parallel GFX core execution", this.workerError);
+      }
+      if (spins < SPIN_LOOPS) {
+        spins++;
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+    this.discard();
+  }
+
+  /**
+   * Drop recorded steps without replay, for instance if state of GFX cores is replaced.
+   */
+  void discard() {
+    for (int i = 0; i < this.writes; i++) {
+      this.heapWritten[this.writeAddress[i]] = false;
+    }
+    this.writes = 0;
+    this.steps = 0;
+  }
+
+  Z80 getLaneMainCpu(final int ctx) {
+    return this.stepMainCpu[this.laneStep[ctx]];
+  }
+
+  int getLane7FFD(final int ctx) {
+    return this.step7FFD[this.laneStep[ctx]];
+  }
+
+  int getLanePortValue(final int ctx) {
+    return this.stepPortValue[this.laneStep[ctx]];
+  }
+
+  boolean isLaneTrdos(final int ctx) {
+    return this.laneTrdos[ctx];
+  }
+
+  void setLaneTrdos(final int ctx, final boolean active) {
+    this.laneTrdos[ctx] = active;
+  }
+
+  /**
+   * Read heap byte as it was at the step replayed by GFX core.
+   *
+   * @param ctx         context of GFX core
+   * @param heapAddress heap address
+   * @return byte value
+   */
+  byte readLaneHeap(final int ctx, final int heapAddress) {
+    if (this.heapWritten[heapAddress]) {
+      final int step = this.laneStep[ctx];
+      for (int i = 0; i < this.writes; i++) {
+        if (this.writeAddress[i] == heapAddress && this.writeStep[i] >= step) {
+          return this.writeValue[i];
+        }
+      }
+    }
+    return this.heap[heapAddress];
+  }
+
+  private void replayLanes(final int threadIndex) {
+    final int steps = this.steps;
+    final int alignRegs = this.sliceAlignRegs;
+    for (int lane = threadIndex; lane < this.gfxCores.length; lane += this.threads) {
+      final Z80 gfxCore = this.gfxCores[lane];
+      final int ctx = lane + 1;
+      for (int step = 0; step < steps; step++) {
+        this.laneStep[ctx] = step;
+        this.laneTrdos[ctx] = this.stepTrdos[step];
+        gfxCore.alignRegisterValuesWith(this.stepMainCpu[step], alignRegs);
+        gfxCore.step(ctx, this.stepSignals[step]);
+      }
+    }
+  }
+
+  private void workerLoop(final int threadIndex) {
+    int processedGeneration = this.sliceGeneration;
+    while (!this.disposed) {
+      int spins = 0;
+      while (this.sliceGeneration == processedGeneration && !this.disposed) {
+        if (spins < SPIN_LOOPS) {
+          spins++;
+          Thread.onSpinWait();
+        } else {
+          LockSupport.park(this);
+        }
+      }
+      if (this.disposed) {
+        break;
+      }
+      processedGeneration = this.sliceGeneration;
+      try {
+        this.replayLanes(threadIndex);
+      } catch (Throwable ex) {
+        this.workerError = ex;
+      } finally {
+        this.activeWorkers.decrementAndGet();
+      }
+    }
+  }
+
+  void dispose() {
+    this.disposed = true;
+    for (final Thread worker : this.workers) {
+      LockSupport.unpark(worker);
+    }
+    LOGGER.info("Parallel GFX cores stopped");
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.components;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Executes ZX-Poly modules in parallel, the master module is executed on the caller thread and
+ * every slave module has its own worker thread. Modules are executed for slice of ti-states and
+ * synchronized on the end of every slice.
+ */
+final class ParallelModuleStepper {
+
+  private static final Logger LOGGER = Logger.getLogger("MB");
+
+  private static final int SPIN_LOOPS = Runtime.getRuntime().availableProcessors() > 1 ? 20_000 : 0;
+
+  private final Motherboard board;
+  private final ZxPolyModule[] modules;
+  private final Thread[] workers;
+  private final int[] overrunTstates;
+  private final int[] spentTstates;
+  private final int[] haltNotificationReg1;
+  private final AtomicInteger activeWorkers = new AtomicInteger();
+
+  private volatile int sliceGeneration;
+  private volatile boolean disposed;
+  private volatile Throwable workerError;
+
+  private int sliceTstates;
+  private BoardMode sliceBoardMode;
+  private boolean sliceSignalReset;
+  private boolean sliceCommonInt;
+  private boolean sliceResetStatistics;
+
+  ParallelModuleStepper(final Motherboard board, final ZxPolyModule[] modules) {
+    this.board = board;
+    this.modules = modules;
+    this.overrunTstates = new int[modules.length];
+    this.spentTstates = new int[modules.length];
+    this.haltNotificationReg1 = new int[modules.length];
+
+    this.workers = new Thread[modules.length - 1];
+    for (int i = 0; i < this.workers.length; i++) {
+      final int moduleIndex = i + 1;
+      final Thread thread = new Thread(() -> this.workerLoop(moduleIndex), "zxp-module-worker-" + moduleIndex);
+      thread.setDaemon(true);
+      this.workers[i] = thread;
+    }
+    for (final Thread thread : this.workers) {
+      thread.start();
+    }
+    LOGGER.info("Started " + this.workers.length + " worker thread(s) for parallel module execution");
+  }
+
+  /**
+   * Execute all modules for a slice and wait for all them.
+   *
+   * @param sliceTstates number of ti-states to be executed by every module, must be positive
+   * @return spent ti-states of the master module
+   */
+  int executeSlice(final int sliceTstates,
+                   final BoardMode boardMode,
+                   final boolean signalReset,
+                   final boolean commonInt,
+                   final boolean resetStatistics) {
+    this.sliceTstates = sliceTstates;
+    this.sliceBoardMode = boardMode;
+    this.sliceSignalReset = signalReset;
+    this.sliceCommonInt = commonInt;
+    this.sliceResetStatistics = resetStatistics;
+
+    this.activeWorkers.set(this.workers.length);
+    this.sliceGeneration++;
+    for (final Thread worker : this.workers) {
+      LockSupport.unpark(worker);
+    }
+
+    this.executeModule(0);
+
+    int spins = 0;
+    while (this.activeWorkers.get() != 0) {
+      if (this.workerError != null) {
+        throw new Error("Error during parallel module execution", this.workerError);
+      }
+      if (spins < SPIN_LOOPS) {
+        spins++;
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+    return this.spentTstates[0];
+  }
+
+  /**
+   * Get value of REG1 of module, captured when the module met HALT during the last slice.
+   *
+   * @param moduleIndex index of module
+   * @return REG1 value or -1 if there was no HALT or ports were locked in the HALT moment
+   */
+  int getHaltNotificationReg1(final int moduleIndex) {
+    return this.haltNotificationReg1[moduleIndex];
+  }
+
+  private void executeModule(final int moduleIndex) {
+    final ZxPolyModule module = this.modules[moduleIndex];
+    final int budget = this.sliceTstates - this.overrunTstates[moduleIndex];
+    final BoardMode mode = this.sliceBoardMode;
+
+    int haltReg1 = -1;
+    int spent = 0;
+    boolean firstStep = true;
+    while (spent < budget) {
+      final boolean halt;
+      if (firstStep) {
+        halt = module.step(mode, this.sliceSignalReset, this.sliceCommonInt, this.sliceResetStatistics);
+        firstStep = false;
+      } else {
+        module.prepareWaitSignal();
+        halt = module.step(mode, false, false, false);
+      }
+      if (halt) {
+        // REG1 can be changed by other module till end of slice
+        haltReg1 = this.board.is3D00NotLocked() ? module.getReg1WrittenData() : -1;
+      }
+      spent += module.getCpu().getStepTstates();
+      if (this.board.isLocalResetForAllModules()) {
+        break;
+      }
+    }
+    this.overrunTstates[moduleIndex] = Math.max(0, spent - budget);
+    this.spentTstates[moduleIndex] = spent;
+    this.haltNotificationReg1[moduleIndex] = haltReg1;
+  }
+
+  private void workerLoop(final int moduleIndex) {
+    int processedGeneration = this.sliceGeneration;
+    while (!this.disposed) {
+      int spins = 0;
+      while (this.sliceGeneration == processedGeneration && !this.disposed) {
+        if (spins < SPIN_LOOPS) {
+          spins++;
+          Thread.onSpinWait();
+        } else {
+          LockSupport.park(this);
+        }
+      }
+      if (this.disposed) {
+        break;
+      }
+      processedGeneration = this.sliceGeneration;
+      try {
+        this.executeModule(moduleIndex);
+      } catch (Throwable ex) {
+        this.workerError = ex;
+      } finally {
+        this.activeWorkers.decrementAndGet();
+      }
+    }
+  }
+
+  void dispose() {
+    this.disposed = true;
+    for (final Thread worker : this.workers) {
+      LockSupport.unpark(worker);
+    }
+    LOGGER.info("Parallel module execution stopped");
+  }
+}
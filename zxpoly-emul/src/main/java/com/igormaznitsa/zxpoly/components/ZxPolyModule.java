@@ -75,8 +75,31 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
 
   private static final int GFX_PAGE_SIZE = 0x4000 * 8;
 
+  // spread bits of GFX plane byte into lowest bits of pixel fields, the leftmost pixel is the highest field
+  private static final long[] GFX_PLANE_TO_PIXELS8 = makeGfxPlaneToPixels(8);
+  private static final long[] GFX_PLANE_TO_PIXELS5 = makeGfxPlaneToPixels(5);
+
   private final TimingProfile timingProfile;
 
+  private static final int DEFERRED_INT = 1;
+  private static final int DEFERRED_NMI = 2;
+  private static final int DEFERRED_RESET = 4;
+  private final AtomicInteger deferredSignals = new AtomicInteger();
+
+  // memory map of CPU address space by 16 kb slots, rebuilt only when memory configuration is changed
+  private final byte[][] slotMemory = new byte[4][];
+  private final int[] slotOffset = new int[4];
+  private final int[] slotHeapOffset = new int[4];
+  private final boolean[] slotWritable = new boolean[4];
+  private final boolean[] slotContended = new boolean[4];
+  private final byte[][] slotGfxMemory = new byte[4][];
+  private final int[] slotGfxOffset = new int[4];
+  private BoardMode slotBoardMode;
+  private int slot7FFD;
+  private volatile boolean memorySlotsInvalid = true;
+
+  // if not null then GFX cores replay recorded steps of the main CPU
+  private ParallelGfxStepper gfxStepper;
 
   public ZxPolyModule(final TimingProfile timingProfile, final Motherboard board, final RomData romData, final int index) {
     this.timingProfile = timingProfile;
@@ -118,12 +141,76 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
     this.gfxPtrFromMainCpu = value;
   }
 
+  void setGfxStepper(final ParallelGfxStepper stepper) {
+    this.gfxStepper = stepper;
+  }
+
+  private Z80 findGfxMainCpu(final int ctx) {
+    final ParallelGfxStepper stepper = this.gfxStepper;
+    return stepper == null ? this.cpu : stepper.getLaneMainCpu(ctx);
+  }
+
   public RomData getRomData() {
     return this.romData.get();
   }
 
   public void setRomData(final RomData romData) {
     this.romData.set(Objects.requireNonNull(romData));
+    this.invalidateMemorySlots();
+  }
+
+  /**
+   * Mark memory map as invalid, it will be rebuilt by the module thread before the next memory
+   * access. Must be called for any change of #7FFD, REG0, #3D00, board mode, ROM or TR-DOS state.
+   */
+  void invalidateMemorySlots() {
+    this.memorySlotsInvalid = true;
+  }
+
+  private void updateMemorySlots() {
+    // reset flag before reading of state so that concurrent invalidation is not lost
+    this.memorySlotsInvalid = false;
+
+    final BoardMode mode = this.board.getBoardMode();
+    final int value7FFD = this.port7FFD.get();
+    final boolean writingEnabled = mode != BoardMode.ZXPOLY
+            || (this.zxPolyRegsWritten.get(0) & REG0w_MEMORY_WRITING_DISABLED) == 0;
+    final byte[] heap = this.board.getHeapRam();
+
+    for (int slot = 0; slot < 4; slot++) {
+      final int heapOffset = this.ramOffset2HeapAddress(value7FFD, slot << 14);
+      this.slotMemory[slot] = heap;
+      this.slotOffset[slot] = heapOffset;
+      this.slotHeapOffset[slot] = heapOffset;
+      this.slotWritable[slot] = writingEnabled && slot != 0;
+      this.slotContended[slot] = slot == 1 || (slot == 3 && (value7FFD & 1) != 0);
+
+      final int gfxPage = slot == 1 ? 5 : slot == 2 ? 2 : value7FFD & 7;
+      this.slotGfxMemory[slot] = this.gfxRam;
+      this.slotGfxOffset[slot] = gfxPage * GFX_PAGE_SIZE;
+    }
+
+    if ((value7FFD & PORTw_ZX128_ROMRAM) == 0) {
+      final RomData rom = this.romData.get();
+      final int romOffset = this.trdosRomActive ? 0x8000 : ((value7FFD >> 4) & 1) * 0x4000;
+      this.slotMemory[0] = rom.getAsArray();
+      this.slotOffset[0] = romOffset & rom.getMask();
+    } else {
+      //RAM0
+      this.slotWritable[0] =
+              writingEnabled && mode == BoardMode.ZXPOLY && this.board.is3D00NotLocked();
+    }
+
+    if (this.trdosRomActive) {
+      // TR-DOS ROM has no GFX copy
+      this.slotGfxMemory[0] = null;
+    } else {
+      this.slotGfxMemory[0] = this.gfxRom;
+      this.slotGfxOffset[0] = ((value7FFD >> 4) & 1) * GFX_PAGE_SIZE;
+    }
+
+    this.slotBoardMode = mode;
+    this.slot7FFD = value7FFD;
   }
 
   private static int calcPortForRegister(final int moduleIndex, final int registerIndex) {
@@ -166,6 +253,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
     this.zxPolyRegsWritten.set(1, reg1 & 0xFF);
     this.zxPolyRegsWritten.set(2, reg2 & 0xFF);
     this.zxPolyRegsWritten.set(3, reg3 & 0xFF);
+    this.invalidateMemorySlots();
   }
 
   @Override
@@ -183,11 +271,16 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
           prepareLocalInt();
         } else {
           if (!isTrdosActive() && port == PORT_REG0) {
-            final int cpuState = this.cpu.getState();
-            final int address = packAddress(this.lastM1Address);
-
-            result = ((cpuState & Z80.SIGNAL_OUT_nHALT) == 0 ? ZXPOLY_rREG0_HALTMODE : 0)
-                    | (this.waitSignal ? ZXPOLY_rREG0_WAITMODE : 0) | (address << 2);
+            if ((this.deferredSignals.get() & DEFERRED_RESET) != 0) {
+              // reset is requested during parallel slice but not applied yet, show state after reset
+              result = 0;
+            } else {
+              final int cpuState = this.cpu.getState();
+              final int address = packAddress(this.lastM1Address);
+
+              result = ((cpuState & Z80.SIGNAL_OUT_nHALT) == 0 ? ZXPOLY_rREG0_HALTMODE : 0)
+                      | (this.waitSignal ? ZXPOLY_rREG0_WAITMODE : 0) | (address << 2);
+            }
           } else {
             result = -1;
           }
@@ -209,6 +302,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
 
   public void setTrdosActive(final boolean active) {
     this.trdosRomActive = active;
+    this.invalidateMemorySlots();
   }
 
   @Override
@@ -220,6 +314,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
       ) {
         if (port == PORT_REG0) {
           this.zxPolyRegsWritten.set(0, value);
+          this.invalidateMemorySlots();
           if ((value & ZXPOLY_wREG0_RESET) != 0) {
             prepareLocalReset();
           }
@@ -252,17 +347,50 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
   }
 
   public void prepareLocalReset() {
-    this.localResetCounter = 3;
-    this.registerReadingCounter = 3;
-    this.activeRegisterReading = false;
+    if (this.board.isModulesSliceActive()) {
+      this.deferSignal(DEFERRED_RESET);
+    } else {
+      this.localResetCounter = 3;
+      this.registerReadingCounter = 3;
+      this.activeRegisterReading = false;
+    }
   }
 
   public void prepareLocalNmi() {
-    this.localNmi = true;
+    if (this.board.isModulesSliceActive()) {
+      this.deferSignal(DEFERRED_NMI);
+    } else {
+      this.localNmi = true;
+    }
   }
 
   public void prepareLocalInt() {
-    this.localInt = true;
+    if (this.board.isModulesSliceActive()) {
+      this.deferSignal(DEFERRED_INT);
+    } else {
+      this.localInt = true;
+    }
+  }
+
+  private void deferSignal(final int signal) {
+    this.deferredSignals.accumulateAndGet(signal, (a, b) -> a | b);
+  }
+
+  /**
+   * Apply local signals which were sent to the module by other modules during parallel slice.
+   * Must be called on the board thread when all modules are stopped.
+   */
+  void applyDeferredSignals() {
+    final int signals = this.deferredSignals.getAndSet(0);
+    if ((signals & DEFERRED_RESET) != 0) {
+      this.prepareLocalReset();
+    }
+    if ((signals & DEFERRED_NMI) != 0) {
+      this.prepareLocalNmi();
+    }
+    if ((signals & DEFERRED_INT) != 0) {
+      this.prepareLocalInt();
+    }
   }
 
   public boolean step(
@@ -347,65 +475,90 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
     return isHaltDetected;
   }
 
+  /**
+   * Execute CPU of the module for batch of steps, allowed only if there is no any active signal
+   * for the module.
+   *
+   * @param tstatesBudget number of ti-states to be spent
+   * @return spent ti-states or -1 if the module has active signals and must be executed step by step
+   */
+  int run(final int tstatesBudget) {
+    if (this.waitSignal || this.localInt || this.localNmi || this.localResetCounter > 0
+            || this.intTiStatesCounter != 0 || this.nmiTiStatesCounter != 0) {
+      return -1;
+    }
+
+    final int oldCpuState = this.cpu.getState();
+    final int spentTiStates = this.cpu.run(this.moduleIndex, Z80.SIGNAL_IN_ALL_INACTIVE, tstatesBudget);
+    final boolean isHaltDetected =
+            (this.cpu.getState() & Z80.SIGNAL_OUT_nHALT) == 0 && (oldCpuState & Z80.SIGNAL_OUT_nHALT) != 0;
+
+    this.mcyclesOfActivityBetweenInt +=
+            isHaltDetected ? spentTiStates - this.cpu.getStepTstates() - 15000L : spentTiStates;
+    return spentTiStates;
+  }
+
   public void gfxGpuStep(final int ctx, final Z80 gfxCpu) {
+    gfxCpu.step(ctx, this.makeGfxSignals());
+  }
+
+  int makeGfxSignals() {
     int sigWait = this.gfxWaitSignal ? 0 : Z80.SIGNAL_IN_nWAIT;
-    gfxCpu.step(ctx,
-            Z80.SIGNAL_IN_nRESET | (this.gfxIntCounter != 0 ? 0 : Z80.SIGNAL_IN_nINT)
-                    | sigWait | (this.gfxNmiCounter != 0 ? 0 : Z80.SIGNAL_IN_nNMI));
+    return Z80.SIGNAL_IN_nRESET | (this.gfxIntCounter != 0 ? 0 : Z80.SIGNAL_IN_nINT)
+            | sigWait | (this.gfxNmiCounter != 0 ? 0 : Z80.SIGNAL_IN_nNMI);
   }
 
   public boolean is7FFDLocked() {
     return (this.port7FFD.get() & PORTw_ZX128_LOCK) != 0;
   }
 
-  public long readGfxVideo(final int videoOffset) {
-    int offset;
-    if ((this.port7FFD.get() & PORTw_ZX128_SCREEN) == 0) {
-      // RAM 5
-      offset = 5 * GFX_PAGE_SIZE + (videoOffset << 3);
-    } else {
-      // RAM 7
-      offset = 7 * GFX_PAGE_SIZE + (videoOffset << 3);
-    }
-
-    long result = 0L;
-    for (int pixIndex = 0; pixIndex < 8; pixIndex++) {
-      result <<= 8;
-      int acc = 0;
-      final int msk = 1 << (7 - pixIndex);
-      for (int bitIndex = 0; bitIndex < 8; bitIndex++) {
-        if ((this.gfxRam[offset + bitIndex] & msk) != 0) {
-          acc |= (1 << bitIndex);
+  private static long[] makeGfxPlaneToPixels(final int bitsPerPixel) {
+    final long[] result = new long[256];
+    for (int value = 0; value < 256; value++) {
+      long pixels = 0L;
+      for (int bit = 0; bit < 8; bit++) {
+        if ((value & (1 << bit)) != 0) {
+          pixels |= 1L << (bit * bitsPerPixel);
         }
       }
-      result |= acc;
+      result[value] = pixels;
     }
     return result;
   }
 
-  public long readGfxVideo16(final int videoOffset) {
-    int offset;
+  private int gfxVideoOffset(final int videoOffset) {
     if ((this.port7FFD.get() & PORTw_ZX128_SCREEN) == 0) {
       // RAM 5
-      offset = 5 * GFX_PAGE_SIZE + (videoOffset << 3);
+      return 5 * GFX_PAGE_SIZE + (videoOffset << 3);
     } else {
       // RAM 7
-      offset = 7 * GFX_PAGE_SIZE + (videoOffset << 3);
+      return 7 * GFX_PAGE_SIZE + (videoOffset << 3);
     }
+  }
 
-    long result = 0L;
-    for (int pixIndex = 0; pixIndex < 8; pixIndex++) {
-      result <<= 5;
-      int acc = 0;
-      final int msk = 1 << (7 - pixIndex);
-      for (int bitIndex = 0; bitIndex < 5; bitIndex++) {
-        if ((this.gfxRam[offset + bitIndex] & msk) != 0) {
-          acc |= (1 << bitIndex);
-        }
-      }
-      result |= acc;
-    }
-    return result;
+  public long readGfxVideo(final int videoOffset) {
+    final int offset = gfxVideoOffset(videoOffset);
+    final byte[] ram = this.gfxRam;
+    final long[] planeToPixels = GFX_PLANE_TO_PIXELS8;
+    return planeToPixels[ram[offset] & 0xFF]
+            | (planeToPixels[ram[offset + 1] & 0xFF] << 1)
+            | (planeToPixels[ram[offset + 2] & 0xFF] << 2)
+            | (planeToPixels[ram[offset + 3] & 0xFF] << 3)
+            | (planeToPixels[ram[offset + 4] & 0xFF] << 4)
+            | (planeToPixels[ram[offset + 5] & 0xFF] << 5)
+            | (planeToPixels[ram[offset + 6] & 0xFF] << 6)
+            | (planeToPixels[ram[offset + 7] & 0xFF] << 7);
+  }
+
+  public long readGfxVideo16(final int videoOffset) {
+    final int offset = gfxVideoOffset(videoOffset);
+    final byte[] ram = this.gfxRam;
+    final long[] planeToPixels = GFX_PLANE_TO_PIXELS5;
+    return planeToPixels[ram[offset] & 0xFF]
+            | (planeToPixels[ram[offset + 1] & 0xFF] << 1)
+            | (planeToPixels[ram[offset + 2] & 0xFF] << 2)
+            | (planeToPixels[ram[offset + 3] & 0xFF] << 3)
+            | (planeToPixels[ram[offset + 4] & 0xFF] << 4);
   }
 
   public int readVideo(final int videoOffset) {
@@ -474,23 +627,36 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
           final boolean m1,
           final boolean cmdOrPrefix
   ) {
-    final byte result;
+    if (ctx != 0) {
+      final ParallelGfxStepper stepper = this.gfxStepper;
+      if (stepper != null) {
+        return this.readGfxLaneMemory(stepper, ctx, address, m1, cmdOrPrefix);
+      }
+    }
 
-    final int valueAt7ffd = this.port7FFD.get();
-    final boolean basic48selected = (valueAt7ffd & PORTw_ZX128_48ROM) != 0;
+    if (this.memorySlotsInvalid) {
+      this.updateMemorySlots();
+    }
 
     if (m1) {
       this.lastM1Address = address;
       final int address_h = address >>> 8;
 
+      final boolean trdos;
       if (this.trdosRomActive) {
-        this.trdosRomActive = address_h < 0x40;
+        trdos = address_h < 0x40;
       } else {
-        this.trdosRomActive = basic48selected && address_h == 0x3D;
+        trdos = (this.slot7FFD & PORTw_ZX128_48ROM) != 0 && address_h == 0x3D;
+      }
+      if (trdos != this.trdosRomActive) {
+        this.trdosRomActive = trdos;
+        this.updateMemorySlots();
       }
     }
 
-    switch (this.board.getBoardMode()) {
+    final int slot = address >>> 14;
+    final byte result;
+    switch (this.slotBoardMode) {
       case ZXPOLY: {
         if (m1 && this.board.is3D00NotLocked() && this.registerReadingCounter == 0) {
           final int moduleStopAddress =
@@ -513,19 +679,24 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
             this.activeRegisterReading = false;
           }
         } else {
-          result = memoryByteForAddress(valueAt7ffd, this.trdosRomActive, address);
+          result = this.slotMemory[slot][this.slotOffset[slot] + (address & 0x3FFF)];
         }
       }
       break;
       case ZX128: {
-        result = memoryByteForAddress(valueAt7ffd, this.trdosRomActive, address);
+        result = this.slotMemory[slot][this.slotOffset[slot] + (address & 0x3FFF)];
       }
       break;
       case SPEC256: {
         if (ctx == 0 || cmdOrPrefix) {
-          result = memoryByteForAddress(valueAt7ffd, this.trdosRomActive, address);
+          result = this.slotMemory[slot][this.slotOffset[slot] + (address & 0x3FFF)];
         } else {
-          result = readGfxMemory(ctx - 1, valueAt7ffd, this.trdosRomActive, address);
+          final byte[] gfxMemory = this.slotGfxMemory[slot];
+          if (gfxMemory == null) {
+            result = readGfxMemory(ctx - 1, this.slot7FFD, this.trdosRomActive, address);
+          } else {
+            result = gfxMemory[this.slotGfxOffset[slot] + ((address & 0x3FFF) << 3) + ctx - 1];
+          }
         }
       }
       break;
@@ -533,11 +704,46 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
         throw new Error("Unexpected mode");
     }
 
-    this.cpu.addTstates(this.board.contendRam(this.port7FFD.get(), address));
+    if (this.slotContended[slot]) {
+      this.cpu.addTstates(this.board.contendRam());
+    }
 
     return result;
   }
 
+  /**
+   * Read memory for GFX core replaying recorded step, memory mapping and TR-DOS state are taken from
+   * the step and main memory is read as it was at the step. Contention is not counted because it
+   * is made by the main CPU.
+   */
+  private byte readGfxLaneMemory(
+          final ParallelGfxStepper stepper,
+          final int ctx,
+          final int address,
+          final boolean m1,
+          final boolean cmdOrPrefix
+  ) {
+    final int value7FFD = stepper.getLane7FFD(ctx);
+    boolean trdos = stepper.isLaneTrdos(ctx);
+    if (m1) {
+      final int address_h = address >>> 8;
+      if (trdos) {
+        trdos = address_h < 0x40;
+      } else {
+        trdos = (value7FFD & PORTw_ZX128_48ROM) != 0 && address_h == 0x3D;
+      }
+      stepper.setLaneTrdos(ctx, trdos);
+    }
+
+    if (!cmdOrPrefix) {
+      return this.readGfxMemory(ctx - 1, value7FFD, trdos, address);
+    } else if (address < 0x4000 && (value7FFD & PORTw_ZX128_ROMRAM) == 0) {
+      return this.memoryByteForAddress(value7FFD, trdos, address);
+    } else {
+      return stepper.readLaneHeap(ctx, this.ramOffset2HeapAddress(value7FFD, address));
+    }
+  }
+
   public byte readGfxMemory(final int gfxCoreIndex,
                             final int valueAt7ffd,
                             final boolean trdosRomActive,
@@ -603,12 +809,21 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
         this.gfxRam[startOffset++] = gfxPageDatum;
       }
     }
+    this.board.getScreenCellTracker().markAll();
   }
 
   public void writeGfxMemory(final int gfxCoreIndex,
                              final int valueAt7FFD,
                              final int address,
                              final int value) {
+    this.writeGfxMemory(gfxCoreIndex, valueAt7FFD, address, value, true);
+  }
+
+  private void writeGfxMemory(final int gfxCoreIndex,
+                              final int valueAt7FFD,
+                              final int address,
+                              final int value,
+                              final boolean syncScanline) {
     if (address >= 0x4000) {
       final int page;
       final int offsetInPage;
@@ -623,7 +838,14 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
         offsetInPage = address - 0xC000;
       }
       final int ramHeapAddr = page * GFX_PAGE_SIZE + (offsetInPage << 3) + gfxCoreIndex;
+      final boolean screenPage = page == 5 || page == 7;
+      if (screenPage && syncScanline) {
+        this.board.syncScanlineBeforeScreenChange();
+      }
       this.gfxRam[ramHeapAddr] = (byte) value;
+      if (screenPage) {
+        this.board.getScreenCellTracker().onScreenWrite(offsetInPage);
+      }
     }
   }
 
@@ -728,56 +950,38 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
 
   @Override
   public void writeMemory(final Z80 cpu, final int ctx, final int address, final byte data) {
-    final int val = data & 0xFF;
+    if (this.memorySlotsInvalid) {
+      this.updateMemorySlots();
+    }
 
-    final int value7FFD = this.port7FFD.get();
+    final ParallelGfxStepper stepper = this.gfxStepper;
+    if (ctx != 0 && stepper != null) {
+      this.writeGfxMemory(ctx - 1, stepper.getLane7FFD(ctx), address, data & 0xFF, false);
+      return;
+    }
 
-    switch (this.board.getBoardMode()) {
-      case ZXPOLY: {
-        final int reg0 = this.zxPolyRegsWritten.get(0);
-        if ((reg0 & REG0w_MEMORY_WRITING_DISABLED) == 0) {
-          final int ramOffsetInHeap = ramOffset2HeapAddress(value7FFD, address);
-
-          if (address < 0x4000) {
-            if (this.board.is3D00NotLocked() && (this.port7FFD.get() & PORTw_ZX128_ROMRAM) != 0) {
-              //RAM0
-              this.board.writeRam(this, ramOffsetInHeap, val);
-            }
-          } else {
-            this.board.writeRam(this, ramOffsetInHeap, val);
-          }
-        }
-      }
-      break;
-      case ZX128: {
-        final int ramOffsetInHeap = ramOffset2HeapAddress(value7FFD, address);
-        if (address >= 0x4000) {
-          // RAM AREA
-          this.board.writeRam(this, ramOffsetInHeap, val);
+    final int slot = address >>> 14;
+    if (ctx == 0 || this.slotBoardMode != BoardMode.SPEC256) {
+      if (this.slotWritable[slot]) {
+        final int heapAddress = this.slotHeapOffset[slot] + (address & 0x3FFF);
+        if (stepper != null) {
+          stepper.onMainWrite(heapAddress);
         }
+        this.board.writeRam(this, heapAddress, data & 0xFF);
       }
-      break;
-      case SPEC256: {
-        if (address >= 0x4000) {
-          if (ctx == 0) {
-            final int ramOffsetInHeap = ramOffset2HeapAddress(value7FFD, address);
-            this.board.writeRam(this, ramOffsetInHeap, val);
-          } else {
-            this.writeGfxMemory(ctx - 1, this.port7FFD.get(), address, val);
-          }
-        }
-      }
-      break;
-      default:
-        throw new Error("Unexpected mode");
+    } else if (slot != 0) {
+      this.writeGfxMemory(ctx - 1, this.slot7FFD, address, data & 0xFF);
+    }
+
+    if (this.slotContended[slot]) {
+      this.cpu.addTstates(this.board.contendRam());
     }
-    this.cpu.addTstates(this.board.contendRam(this.port7FFD.get(), address));
   }
 
   @Override
   public int readPtr(Z80 cpu, int ctx, int reg, int valueInReg) {
     if (ctx != 0 && this.gfxPtrFromMainCpu) {
-      final Z80 mainCpu = this.cpu;
+      final Z80 mainCpu = this.findGfxMainCpu(ctx);
       switch (reg) {
         case Z80.REG_SP:
           return mainCpu.getSP();
@@ -799,7 +1003,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
   @Override
   public int readSpecRegValue(Z80 cpu, int ctx, int reg, int origValue) {
     if (ctx != 0 && this.gfxPtrFromMainCpu) {
-      final Z80 mainCpu = this.cpu;
+      final Z80 mainCpu = this.findGfxMainCpu(ctx);
       return mainCpu.getRegister(reg, false);
     } else {
       return origValue;
@@ -809,7 +1013,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
   @Override
   public int readSpecRegPairValue(Z80 cpu, int ctx, int regPair, int origValue) {
     if (ctx != 0 && this.gfxPtrFromMainCpu) {
-      final Z80 mainCpu = this.cpu;
+      final Z80 mainCpu = this.findGfxMainCpu(ctx);
       return mainCpu.getRegisterPair(regPair, false);
     } else {
       return origValue;
@@ -821,11 +1025,12 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
     if (ctx == 0) {
       return valueInReg;
     } else {
+      final Z80 mainCpu = this.findGfxMainCpu(ctx);
       switch (reg) {
         case REG_A:
-          return this.cpu.getRegister(REG_A);
+          return mainCpu.getRegister(REG_A);
         case Z80.REGPAIR_BC:
-          return this.cpu.getRegisterPair(Z80.REGPAIR_BC);
+          return mainCpu.getRegisterPair(Z80.REGPAIR_BC);
         default:
           return valueInReg;
       }
@@ -834,6 +1039,20 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
 
   @Override
   public byte readPort(final Z80 cpu, final int ctx, final int port) {
+    final ParallelGfxStepper stepper = this.gfxStepper;
+    if (stepper != null) {
+      if (ctx != 0) {
+        return (byte) stepper.getLanePortValue(ctx);
+      }
+      final byte result = this.readPortFromBus(cpu, port);
+      stepper.onMainPortRead(result);
+      return result;
+    }
+    return this.readPortFromBus(cpu, port);
+  }
+
+  private byte readPortFromBus(final Z80 cpu, final int port) {
+    this.board.syncBatchBeforeIo(this, false);
     final int value7ffd = this.port7FFD.get();
     cpu.addTstates(this.board.contendPortEarly(port, value7ffd));
     cpu.addTstates(this.board.contendPortLate(port, value7ffd));
@@ -870,6 +1089,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
   public void write7FFD(final int value, final boolean writeEvenIfLocked) {
     if (((this.port7FFD.get() & PORTw_ZX128_LOCK) == 0) || writeEvenIfLocked) {
       this.port7FFD.set(value);
+      this.invalidateMemorySlots();
     }
   }
 
@@ -917,6 +1137,11 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
 
   @Override
   public void writePort(final Z80 cpu, final int ctx, final int port, final byte data) {
+    if (ctx != 0 && this.gfxStepper != null) {
+      // the main CPU makes the write
+      return;
+    }
+    this.board.syncBatchBeforeIo(this, true);
     final int value7ffd = this.port7FFD.get();
     cpu.addTstates(this.board.contendPortEarly(port, value7ffd));
     cpu.addTstates(this.board.contendPortLate(port, value7ffd));
@@ -931,6 +1156,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
                   && (this.zxPolyRegsWritten.get(1) & ZXPOLY_wREG1_WRITE_MAPPED_IO_7FFD) != 0) {
             this.board.writeBusIo(this, port, val);
           } else {
+            this.board.syncScanlineBeforeScreenChange();
             write7FFD(val, false);
           }
         } else {
@@ -939,6 +1165,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
       }
     } else {
       if ((port & 0x8002) == 0) { // only A15 and A1 in use to detect #7FFD in non ZX-Poly mode
+        this.board.syncScanlineBeforeScreenChange();
         write7FFD(val, false);
       } else {
         this.board.writeBusIo(this, port, val);
@@ -960,6 +1187,18 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
     return NOTIFICATION_PRESTEP;
   }
 
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    // any port can be read from memory of mapped module
+    return mode == BoardMode.ZXPOLY;
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return mode == BoardMode.ZXPOLY
+            && (port == PORT_REG0 || port == PORT_REG1 || port == PORT_REG2 || port == PORT_REG3);
+  }
+
   @Override
   public void onInterrupt(Z80 cpu, int ctx, boolean nmi) {
 
@@ -978,7 +1217,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
   public void postStep(int spentTstates) {
   }
 
-  private void prepareWaitSignal() {
+  void prepareWaitSignal() {
     if (this.board.getBoardMode() == BoardMode.ZXPOLY) {
       this.waitSignal =
               this.stopAddressWait || (this.moduleIndex > 0 && this.board.isSlaveModulesInWaitMode());
@@ -1008,6 +1247,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
     this.lastM1Address = 0;
     this.localInt = false;
     this.localNmi = false;
+    this.deferredSignals.set(0);
 
     for (int i = 0; i < this.zxPolyRegsWritten.length(); i++) {
       this.zxPolyRegsWritten.set(i, 0);
@@ -1015,6 +1255,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
 
     // set the intitial module memory offset in the heap
     this.zxPolyRegsWritten.set(0, this.moduleIndex << 1);
+    this.invalidateMemorySlots();
   }
 
   public int getLastM1Address() {
@@ -1037,6 +1278,7 @@ public final class ZxPolyModule implements IoDevice, Z80CPUBus, MemoryAccessProv
   public void makeAndLockZx48Mode() {
     this.port7FFD.set(0b00_1_1_0_000);
     this.trdosRomActive = false;
+    this.invalidateMemorySlots();
   }
 
   @Override
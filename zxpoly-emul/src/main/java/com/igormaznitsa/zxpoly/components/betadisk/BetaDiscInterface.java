@@ -17,6 +17,7 @@
 
 package com.igormaznitsa.zxpoly.components.betadisk;
 
+import com.igormaznitsa.zxpoly.components.BoardMode;
 import com.igormaznitsa.zxpoly.components.IoDevice;
 import com.igormaznitsa.zxpoly.components.Motherboard;
 import com.igormaznitsa.zxpoly.components.ZxPolyModule;
@@ -138,6 +139,29 @@ public class BetaDiscInterface implements IoDevice {
     return NOTIFICATION_POSTSTEP | NOTIFICATION_PRESTEP;
   }
 
+  private static boolean isVg93Port(final int port) {
+    switch (port & 0xFF) {
+      case 0x1F:
+      case 0x3F:
+      case 0x5F:
+      case 0x7F:
+      case 0xFF:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    return isVg93Port(port);
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return isVg93Port(port);
+  }
+
   @Override
   public void preStep(final int frameTiStates, final boolean signalReset, final boolean tstatesIntReached,
                       boolean wallclockInt) {
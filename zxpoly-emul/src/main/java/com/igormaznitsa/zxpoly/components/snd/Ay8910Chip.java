@@ -5,6 +5,7 @@ import java.util.Objects;
 public final class Ay8910Chip {
 
   private static final int MACHINE_CYCLES_PER_ATICK = 16;
+  private static final int PENDING_TICKS_CAPACITY = 1024;
 
   private static final int REG_TONE_PERIOD_A_FINE = 0x00;
   private static final int REG_TONE_PERIOD_A_ROUGH = 0x01;
@@ -62,6 +63,8 @@ public final class Ay8910Chip {
   private int counterE;
   private int envIndexCounter;
   private int envelopeVolume;
+  private final int[] pendingTicks = new int[PENDING_TICKS_CAPACITY];
+  private int pendingTicksCounter;
 
   public Ay8910Chip(final Ay8910SignalConsumer signalConsumer) {
     this.signalConsumer = Objects.requireNonNull(signalConsumer);
@@ -138,6 +141,7 @@ public final class Ay8910Chip {
   }
 
   public void writeData(int value) {
+    this.renderPendingTicks();
     value &= REG_DATA_MASK[this.addressLatch];
 
     switch (this.addressLatch) {
@@ -216,6 +220,7 @@ public final class Ay8910Chip {
       }
       break;
     }
+    this.mixOutputSignals();
   }
 
   private void doRndNoise() {
@@ -310,20 +315,69 @@ public final class Ay8910Chip {
     this.signalConsumer.onAy8910Levels(this, va, vb, vc);
   }
 
+  /**
+   * Check that output of the chip can be changed during time, it is so if any channel has
+   * non-zero or envelope controlled amplitude.
+   *
+   * @return true if any channel can produce sound
+   */
+  public boolean hasActiveChannels() {
+    return ((this.amplitudeA | this.amplitudeB | this.amplitudeC) & 0x1F) != 0;
+  }
+
+  /**
+   * Make step and send output levels to consumer.
+   *
+   * @param spentMachineCyclesForStep machine cycles spent for step
+   */
   public void step(final long spentMachineCyclesForStep) {
+    this.skip(spentMachineCyclesForStep);
+    this.renderPendingTicks();
+    this.mixOutputSignals();
+  }
+
+  /**
+   * Make step without synthesis, audio ticks are just recorded and rendered in bulk before the
+   * next register write, output request or flush. Output levels are not changed so it should be
+   * used only if output is not heard or all channels are silent.
+   *
+   * @param spentMachineCyclesForStep machine cycles spent for step
+   * @see #step(long)
+   * @see #flush()
+   */
+  public void skip(final long spentMachineCyclesForStep) {
     this.machineCycleCounter += spentMachineCyclesForStep;
 
     if (this.machineCycleCounter >= MACHINE_CYCLES_PER_ATICK) {
-      final int audioTicks = (int) (this.machineCycleCounter / MACHINE_CYCLES_PER_ATICK);
+      if (this.pendingTicksCounter == PENDING_TICKS_CAPACITY) {
+        this.renderPendingTicks();
+      }
+      this.pendingTicks[this.pendingTicksCounter++] = (int) (this.machineCycleCounter / MACHINE_CYCLES_PER_ATICK);
       this.machineCycleCounter %= MACHINE_CYCLES_PER_ATICK;
-      processPeriods(audioTicks);
-      updateEnvelopeVolume(audioTicks);
     }
-    this.mixOutputSignals();
+  }
+
+  /**
+   * Render all recorded audio ticks.
+   */
+  public void flush() {
+    this.renderPendingTicks();
+  }
+
+  private void renderPendingTicks() {
+    final int[] ticks = this.pendingTicks;
+    final int counter = this.pendingTicksCounter;
+    for (int i = 0; i < counter; i++) {
+      final int audioTicks = ticks[i];
+      this.processPeriods(audioTicks);
+      this.updateEnvelopeVolume(audioTicks);
+    }
+    this.pendingTicksCounter = 0;
   }
 
   public void reset() {
     this.addressLatch = 0;
+    this.pendingTicksCounter = 0;
 
     this.rngReg = 1;
 
@@ -360,6 +414,8 @@ public final class Ay8910Chip {
     this.envelopeVolume = 0;
 
     this.mixerControl = 0;
+
+    this.mixOutputSignals();
   }
 
   @FunctionalInterface
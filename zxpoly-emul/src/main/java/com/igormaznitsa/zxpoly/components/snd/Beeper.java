@@ -24,13 +24,10 @@ import javax.sound.sampled.Line;
 import javax.sound.sampled.SourceDataLine;
 import java.util.Arrays;
 import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.IntStream;
 
 import static java.lang.Long.toHexString;
 import static java.lang.String.format;
@@ -72,14 +69,18 @@ public final class Beeper {
   };
 
   private final AtomicReference<IBeeper> activeInternalBeeper = new AtomicReference<>(NULL_BEEPER);
-  private final SoundChannelValueFilter[] soundChannelFilters = IntStream.range(0, 8).mapToObj(i -> new SoundChannelValueFilter()).toArray(SoundChannelValueFilter[]::new);
   private final int[] channels = new int[8];
+  private boolean channelsChanged = true;
+  private int mixedLeft;
+  private int mixedRight;
   private final MixerFunction mixerLeft;
   private final MixerFunction mixerRight;
   private final TimingProfile timingProfile;
+  private final int tstatesPerSample;
 
   public Beeper(final TimingProfile timingProfile, final boolean useAcbSoundScheme, final boolean covoxPresented, final boolean turboSoundPresented) {
     this.timingProfile = timingProfile;
+    this.tstatesPerSample = Math.max(1, timingProfile.ulaFrameTact / SndBufferContainer.SAMPLES_PER_INT);
     if (useAcbSoundScheme) {
       if (turboSoundPresented && covoxPresented) {
         this.mixerLeft = MixerUtilsACB::mixLeft_TS_CVX;
@@ -111,8 +112,21 @@ public final class Beeper {
     }
   }
 
+  /**
+   * Get number of ti-states per sound sample.
+   *
+   * @return number of ti-states, at least 1
+   */
+  public int getTstatesPerSample() {
+    return this.tstatesPerSample;
+  }
+
   public void setChannelValue(final int channel, final int level256) {
-    this.channels[channel] = level256 & 0xFF;
+    final int value = level256 & 0xFF;
+    if (this.channels[channel] != value) {
+      this.channels[channel] = value;
+      this.channelsChanged = true;
+    }
   }
 
   public Optional<SourceSoundPort> setSourceSoundPort(final SourceSoundPort soundPort) {
@@ -133,18 +147,35 @@ public final class Beeper {
     return prevBeeper.getSoundPort();
   }
 
+  public void setSoundDataListener(final SoundDataListener listener) {
+    if (listener == null) {
+      this.activeInternalBeeper.getAndSet(NULL_BEEPER).dispose();
+    } else {
+      final IBeeper newInternalBeeper = new ListenerBeeper(this.timingProfile, listener);
+      final IBeeper prevBeeper = this.activeInternalBeeper.getAndSet(newInternalBeeper);
+      prevBeeper.dispose();
+      newInternalBeeper.start();
+    }
+  }
+
   public boolean isNullBeeper() {
     return this.activeInternalBeeper.get() == NULL_BEEPER;
   }
 
   public void updateState(final boolean tstatesInt, final boolean wallclockInt,
                           final int spentTstates) {
+    // mix only if some channel changed, edges are band-limited by sound buffer
+    if (this.channelsChanged) {
+      this.channelsChanged = false;
+      this.mixedLeft = this.mixerLeft.mix(this.channels);
+      this.mixedRight = this.mixerRight.mix(this.channels);
+    }
     this.activeInternalBeeper.get()
             .updateState(tstatesInt,
                     wallclockInt,
                     spentTstates,
-                    this.mixerLeft.mix(this.channels, this.soundChannelFilters, spentTstates),
-                    this.mixerRight.mix(this.channels, this.soundChannelFilters, spentTstates)
+                    this.mixedLeft,
+                    this.mixedRight
             );
   }
 
@@ -155,7 +186,7 @@ public final class Beeper {
 
   public void clearChannels() {
     Arrays.fill(this.channels, 0);
-    for (final SoundChannelValueFilter f : this.soundChannelFilters) f.reset();
+    this.channelsChanged = true;
   }
 
   public boolean isActive() {
@@ -166,13 +197,69 @@ public final class Beeper {
     this.activeInternalBeeper.get().dispose();
   }
 
+  /**
+   * Get length of sound which is mixed but not played yet.
+   *
+   * @return length of buffered sound in milliseconds
+   */
+  public int getBufferedMillis() {
+    return this.activeInternalBeeper.get().getBufferedMillis();
+  }
+
+  /**
+   * Get number of cases when sound line was drained because there were no mixed data.
+   *
+   * @return number of underruns
+   */
+  public long getUnderruns() {
+    return this.activeInternalBeeper.get().getUnderruns();
+  }
+
+  /**
+   * Get number of cases when mixed sound data were dropped because sound line could not play them in time.
+   *
+   * @return number of overruns
+   */
+  public long getOverruns() {
+    return this.activeInternalBeeper.get().getOverruns();
+  }
+
+  /**
+   * Check that sound is played by sound line, so that its consumption can be used as clock.
+   *
+   * @return true if sound line is active
+   */
+  public boolean isPlaybackClock() {
+    return this.activeInternalBeeper.get().isPlaybackClock();
+  }
+
+  /**
+   * Check that buffered sound reached current target latency of sound line.
+   *
+   * @return true if there is enough buffered sound
+   */
+  public boolean isPlaybackBufferFilled() {
+    return this.activeInternalBeeper.get().isPlaybackBufferFilled();
+  }
+
   public AudioFormat getAudioFormat() {
     return SndBufferContainer.AUDIO_FORMAT;
   }
 
+  @FunctionalInterface
+  public interface SoundDataListener {
+    /**
+     * Called on the emulation thread for every completed INT frame of mixed sound.
+     *
+     * @param data   PCM block in {@link #AUDIO_FORMAT}, reused between calls so it must be copied if kept
+     * @param length number of valid bytes in the block
+     */
+    void onSoundData(byte[] data, int length);
+  }
+
   @FunctionalInterface
   private interface MixerFunction {
-    int mix(int[] values, SoundChannelValueFilter[] filters, int spentTstates);
+    int mix(int[] values);
   }
 
   private interface IBeeper {
@@ -186,17 +273,107 @@ public final class Beeper {
     void dispose();
 
     void reset();
+
+    default int getBufferedMillis() {
+      return 0;
+    }
+
+    default long getUnderruns() {
+      return 0L;
+    }
+
+    default long getOverruns() {
+      return 0L;
+    }
+
+    default boolean isPlaybackClock() {
+      return false;
+    }
+
+    default boolean isPlaybackBufferFilled() {
+      return false;
+    }
+  }
+
+  /**
+   * Sink passing sound to listener, every frame is passed as soon as its ti-states are spent so
+   * that the listener gets sound of the last executed frame too. Frames are counted only by spent
+   * ti-states, so that long record keeps emulated time.
+   */
+  private static final class ListenerBeeper implements IBeeper {
+
+    private final SndBufferContainer sndBuffer;
+    private final SoundDataListener listener;
+    private final int frameTact;
+    private int frameTstates;
+
+    private ListenerBeeper(final TimingProfile timingProfile, final SoundDataListener listener) {
+      this.sndBuffer = new SndBufferContainer(timingProfile);
+      this.listener = listener;
+      this.frameTact = timingProfile.ulaFrameTact;
+    }
+
+    @Override
+    public Optional<SourceSoundPort> getSoundPort() {
+      return Optional.empty();
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void updateState(
+            final boolean tstatesIntReached,
+            final boolean wallclockInt,
+            final int spentTstates,
+            final int levelLeft,
+            final int levelRight
+    ) {
+      this.sndBuffer.setValue(spentTstates, levelLeft, levelRight);
+      this.frameTstates += spentTstates;
+      if (this.frameTstates >= this.frameTact) {
+        // ti-states spent after end of the frame belong to the next one
+        this.completeFrame(levelLeft, levelRight, this.frameTstates - this.frameTact);
+      }
+    }
+
+    private void completeFrame(final int levelLeft, final int levelRight, final int carriedTstates) {
+      final byte[] data = this.sndBuffer.nextBuffer(levelLeft, levelRight);
+      this.sndBuffer.resetPosition(carriedTstates);
+      this.frameTstates = carriedTstates;
+      this.listener.onSoundData(data, data.length);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void reset() {
+      this.sndBuffer.reset();
+      this.frameTstates = 0;
+    }
   }
 
   private static final class InternalBeeper implements IBeeper {
 
-    private final BlockingQueue<byte[]> soundDataQueue =
-            new ArrayBlockingQueue<>(SndBufferContainer.BUFFERS_NUMBER);
+    private static final int MIN_LATENCY_FRAMES = 2;
+    private static final int MAX_LATENCY_FRAMES = SndBufferContainer.BUFFERS_NUMBER;
+    private static final int FRAMES_TO_DECREASE_LATENCY = 500;
+    private static final long IDLE_PARK_NANOS = 2_000_000L;
+
+    private final PcmRingBuffer ringBuffer = new PcmRingBuffer(
+            SndBufferContainer.SND_BUFFER_SIZE * SndBufferContainer.BUFFERS_NUMBER * 2,
+            SndBufferContainer.FRAME_SIZE);
     private final SourceDataLine sourceDataLine;
     private final Thread thread;
     private final SndBufferContainer sndBuffer;
     private final Optional<SourceSoundPort> optionalSourceSoundPort;
     private volatile boolean working = true;
+    private volatile boolean resetRequested;
+    private volatile int lineQueuedBytes;
+    private volatile int latencyFrames = MIN_LATENCY_FRAMES;
 
     private InternalBeeper(final TimingProfile timingProfile, final SourceSoundPort optionalSourceSoundPort) {
       this.sndBuffer = new SndBufferContainer(timingProfile);
@@ -232,23 +409,46 @@ public final class Beeper {
     ) {
       if (this.working) {
         if (wallclockInt) {
-          this.soundDataQueue.offer(sndBuffer.nextBuffer(levelLeft, levelRight));
-          sndBuffer.resetPosition();
+          final byte[] data = this.sndBuffer.nextBuffer(levelLeft, levelRight);
+          this.ringBuffer.write(data, 0, data.length);
+          this.sndBuffer.resetPosition();
         } else {
-          sndBuffer.setValue(spentTstates, levelLeft, levelRight);
+          this.sndBuffer.setValue(spentTstates, levelLeft, levelRight);
         }
       }
     }
 
-    private void writeToLine(final byte[] data) {
-      this.sourceDataLine.write(data, 0, Math.min(this.sourceDataLine.available(), data.length));
+    @Override
+    public int getBufferedMillis() {
+      return (int) ((this.ringBuffer.size() + this.lineQueuedBytes) * 1000L
+              / (SndBufferContainer.SND_FREQ * SndBufferContainer.FRAME_SIZE));
+    }
+
+    @Override
+    public long getUnderruns() {
+      return this.ringBuffer.getUnderruns();
+    }
+
+    @Override
+    public long getOverruns() {
+      return this.ringBuffer.getOverruns();
+    }
+
+    @Override
+    public boolean isPlaybackClock() {
+      return this.working;
+    }
+
+    @Override
+    public boolean isPlaybackBufferFilled() {
+      return this.ringBuffer.size() + this.lineQueuedBytes >= this.latencyFrames * SndBufferContainer.SND_BUFFER_SIZE;
     }
 
     @Override
     public void reset() {
       if (this.working) {
         LOGGER.info("Reset");
-        this.soundDataQueue.clear();
+        this.resetRequested = true;
         this.sndBuffer.reset();
       }
     }
@@ -260,24 +460,67 @@ public final class Beeper {
                 .open(SndBufferContainer.AUDIO_FORMAT,
                         SndBufferContainer.SND_BUFFER_SIZE * SndBufferContainer.BUFFERS_NUMBER);
 
+        final int lineBufferSize = this.sourceDataLine.getBufferSize();
         LOGGER.info(format(
-                "Sound line opened, buffer size is %d byte(s)",
-                this.sourceDataLine.getBufferSize())
+                "Sound line opened, buffer size is %d byte(s)", lineBufferSize)
         );
 
-        byte[] empty =
-                new byte[SndBufferContainer.BUFFERS_NUMBER * SndBufferContainer.SND_BUFFER_SIZE];
-        Arrays.fill(empty, (byte) 0xFF);
-        this.sourceDataLine.write(empty, 0, empty.length);
+        final byte[] block = new byte[lineBufferSize];
+        int latencyFrames = MIN_LATENCY_FRAMES;
+        this.latencyFrames = latencyFrames;
+        this.sourceDataLine.write(block, 0, Math.min(lineBufferSize, latencyFrames * SndBufferContainer.SND_BUFFER_SIZE));
 
         this.sourceDataLine.start();
 
         LOGGER.info("Sound line started");
 
+        boolean starving = false;
+        int playedWithoutUnderrun = 0;
+
         while (this.working && !Thread.currentThread().isInterrupted()) {
-          final byte[] dataBlock = soundDataQueue.poll(10, TimeUnit.MILLISECONDS);
-          if (dataBlock != null) {
-            this.writeToLine(dataBlock);
+          if (this.resetRequested) {
+            this.resetRequested = false;
+            this.ringBuffer.skip(this.ringBuffer.capacity());
+          }
+
+          final int lineAvailable = this.sourceDataLine.available();
+          final int lineQueued = lineBufferSize - lineAvailable;
+          this.lineQueuedBytes = lineQueued;
+
+          final int targetBytes = latencyFrames * SndBufferContainer.SND_BUFFER_SIZE;
+          final int ready = this.ringBuffer.size();
+
+          if (ready == 0) {
+            if (!starving && lineQueued < SndBufferContainer.SND_BUFFER_SIZE / 4) {
+              // line is going to be drained, increase latency to avoid clicks
+              starving = true;
+              this.ringBuffer.registerUnderrun();
+              latencyFrames = Math.min(MAX_LATENCY_FRAMES, latencyFrames + 1);
+              this.latencyFrames = latencyFrames;
+              playedWithoutUnderrun = 0;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            continue;
+          }
+          starving = false;
+
+          if (ready + lineQueued > targetBytes + SndBufferContainer.SND_BUFFER_SIZE) {
+            // producer is faster than line, drop the oldest data to keep latency
+            this.ringBuffer.skip(ready + lineQueued - targetBytes);
+            this.ringBuffer.registerOverrun();
+          }
+
+          final int read = this.ringBuffer.read(block, 0, Math.min(lineAvailable, Math.max(0, targetBytes - lineQueued)));
+          if (read > 0) {
+            this.sourceDataLine.write(block, 0, read);
+            playedWithoutUnderrun += read;
+            if (playedWithoutUnderrun >= FRAMES_TO_DECREASE_LATENCY * SndBufferContainer.SND_BUFFER_SIZE) {
+              playedWithoutUnderrun = 0;
+              latencyFrames = Math.max(MIN_LATENCY_FRAMES, latencyFrames - 1);
+              this.latencyFrames = latencyFrames;
+            }
+          } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
           }
         }
         LOGGER.info("Main loop completed");
@@ -1,5 +1,6 @@
 package com.igormaznitsa.zxpoly.components.snd;
 
+import com.igormaznitsa.zxpoly.components.BoardMode;
 import com.igormaznitsa.zxpoly.components.IoDevice;
 import com.igormaznitsa.zxpoly.components.Motherboard;
 import com.igormaznitsa.zxpoly.components.ZxPolyModule;
@@ -57,4 +58,14 @@ public final class CovoxFb implements IoDevice {
   public int getNotificationFlags() {
     return NOTIFICATION_NONE;
   }
+
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    return false;
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return (port & 0xFF) == 0xFB;
+  }
 }
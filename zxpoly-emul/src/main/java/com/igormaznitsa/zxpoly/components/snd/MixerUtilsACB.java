@@ -10,85 +10,85 @@ public final class MixerUtilsACB extends MixerUtils {
     super();
   }
 
-  public static int mixLeft_TS_CVX(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_COVOX].update(spentTstates, values[CHANNEL_COVOX])
-            + filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C])
-            + filters[CHANNEL_TS_C].update(spentTstates, values[CHANNEL_TS_C]);
+  public static int mixLeft_TS_CVX(final int[] values) {
+    final int middle = values[CHANNEL_COVOX]
+            + values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C]
+            + values[CHANNEL_TS_C];
 
-    final int left = filters[CHANNEL_TS_A].update(spentTstates, values[CHANNEL_TS_A])
-            + filters[CHANNEL_AY_A].update(spentTstates, values[CHANNEL_AY_A]);
+    final int left = values[CHANNEL_TS_A]
+            + values[CHANNEL_AY_A];
 
     return scaleLeft6(left, middle);
   }
 
-  public static int mixRight_TS_CVX(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_COVOX].update(spentTstates, values[CHANNEL_COVOX])
-            + filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C])
-            + filters[CHANNEL_TS_C].update(spentTstates, values[CHANNEL_TS_C]);
+  public static int mixRight_TS_CVX(final int[] values) {
+    final int middle = values[CHANNEL_COVOX]
+            + values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C]
+            + values[CHANNEL_TS_C];
 
-    final int right = filters[CHANNEL_AY_B].update(spentTstates, values[CHANNEL_AY_B])
-            + filters[CHANNEL_TS_B].update(spentTstates, values[CHANNEL_TS_B]);
+    final int right = values[CHANNEL_AY_B]
+            + values[CHANNEL_TS_B];
 
     return scaleRight6(right, middle);
   }
 
-  public static int mixLeft_CVX(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_COVOX].update(spentTstates, values[CHANNEL_COVOX])
-            + filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C]);
+  public static int mixLeft_CVX(final int[] values) {
+    final int middle = values[CHANNEL_COVOX]
+            + values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C];
 
-    final int left = filters[CHANNEL_AY_A].update(spentTstates, values[CHANNEL_AY_A]);
+    final int left = values[CHANNEL_AY_A];
 
     return scaleLeft4(left, middle);
   }
 
-  public static int mixRight_CVX(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_COVOX].update(spentTstates, values[CHANNEL_COVOX])
-            + filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C]);
+  public static int mixRight_CVX(final int[] values) {
+    final int middle = values[CHANNEL_COVOX]
+            + values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C];
 
-    final int right = filters[CHANNEL_AY_B].update(spentTstates, values[CHANNEL_AY_B]);
+    final int right = values[CHANNEL_AY_B];
 
     return scaleRight4(right, middle);
   }
 
-  public static int mixLeft_TS(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C])
-            + filters[CHANNEL_TS_C].update(spentTstates, values[CHANNEL_TS_C]);
+  public static int mixLeft_TS(final int[] values) {
+    final int middle = values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C]
+            + values[CHANNEL_TS_C];
 
-    final int left = filters[CHANNEL_TS_A].update(spentTstates, values[CHANNEL_TS_A])
-            + filters[CHANNEL_AY_A].update(spentTstates, values[CHANNEL_AY_A]);
+    final int left = values[CHANNEL_TS_A]
+            + values[CHANNEL_AY_A];
 
     return scaleLeft5(left, middle);
   }
 
-  public static int mixRight_TS(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C])
-            + filters[CHANNEL_TS_C].update(spentTstates, values[CHANNEL_TS_C]);
+  public static int mixRight_TS(final int[] values) {
+    final int middle = values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C]
+            + values[CHANNEL_TS_C];
 
-    final int right = filters[CHANNEL_AY_B].update(spentTstates, values[CHANNEL_AY_B])
-            + filters[CHANNEL_TS_B].update(spentTstates, values[CHANNEL_TS_B]);
+    final int right = values[CHANNEL_AY_B]
+            + values[CHANNEL_TS_B];
 
     return scaleRight5(right, middle);
   }
 
-  public static int mixLeft(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C]);
-    final int left = filters[CHANNEL_AY_A].update(spentTstates, values[CHANNEL_AY_A]);
+  public static int mixLeft(final int[] values) {
+    final int middle = values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C];
+    final int left = values[CHANNEL_AY_A];
 
     return scaleLeft3(left, middle);
   }
 
-  public static int mixRight(final int[] values, final SoundChannelValueFilter[] filters, final int spentTstates) {
-    final int middle = filters[CHANNEL_BEEPER].update(spentTstates, values[CHANNEL_BEEPER])
-            + filters[CHANNEL_AY_C].update(spentTstates, values[CHANNEL_AY_C]);
+  public static int mixRight(final int[] values) {
+    final int middle = values[CHANNEL_BEEPER]
+            + values[CHANNEL_AY_C];
 
-    final int right = filters[CHANNEL_AY_B].update(spentTstates, values[CHANNEL_AY_B]);
+    final int right = values[CHANNEL_AY_B];
 
     return scaleRight3(right, middle);
   }
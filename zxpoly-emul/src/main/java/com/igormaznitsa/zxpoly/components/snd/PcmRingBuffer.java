@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.igormaznitsa.zxpoly.components.snd;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring of PCM bytes between single producer (emulation thread) and single consumer
+ * (sound line thread). Data are written and read in whole sample frames, the producer never waits
+ * and drops data which can't be placed, the consumer gets only published data.
+ */
+final class PcmRingBuffer {
+
+  private final byte[] buffer;
+  private final int mask;
+  private final int frameSize;
+
+  private volatile long writePosition;
+  private volatile long readPosition;
+
+  private final AtomicLong overruns = new AtomicLong();
+  private final AtomicLong underruns = new AtomicLong();
+
+  PcmRingBuffer(final int minCapacity, final int frameSize) {
+    int capacity = Integer.highestOneBit(Math.max(minCapacity, frameSize));
+    if (capacity < minCapacity) {
+      capacity <<= 1;
+    }
+    this.buffer = new byte[capacity];
+    this.mask = capacity - 1;
+    this.frameSize = frameSize;
+  }
+
+  int capacity() {
+    return this.buffer.length;
+  }
+
+  /**
+   * Get number of bytes which can be read.
+   *
+   * @return number of bytes ready to be read
+   */
+  int size() {
+    return (int) (this.writePosition - this.readPosition);
+  }
+
+  /**
+   * Write data, must be called only by producer. If there is no enough space then only part of
+   * data is written and overrun is registered.
+   *
+   * @param data   source array
+   * @param offset offset in source array
+   * @param length number of bytes to write
+   * @return number of written bytes
+   */
+  int write(final byte[] data, final int offset, final int length) {
+    final long position = this.writePosition;
+    final int free = this.buffer.length - (int) (position - this.readPosition);
+    int toWrite = length;
+    if (toWrite > free) {
+      toWrite = free - free % this.frameSize;
+      this.overruns.incrementAndGet();
+    }
+    if (toWrite > 0) {
+      final int start = (int) position & this.mask;
+      final int firstPart = Math.min(toWrite, this.buffer.length - start);
+      System.arraycopy(data, offset, this.buffer, start, firstPart);
+      System.arraycopy(data, offset + firstPart, this.buffer, 0, toWrite - firstPart);
+      this.writePosition = position + toWrite;
+    }
+    return toWrite;
+  }
+
+  /**
+   * Read data, must be called only by consumer.
+   *
+   * @param data   destination array
+   * @param offset offset in destination array
+   * @param length max number of bytes to read
+   * @return number of read bytes, multiple of frame size
+   */
+  int read(final byte[] data, final int offset, final int length) {
+    final long position = this.readPosition;
+    int toRead = Math.min(length, (int) (this.writePosition - position));
+    toRead -= toRead % this.frameSize;
+    if (toRead > 0) {
+      final int start = (int) position & this.mask;
+      final int firstPart = Math.min(toRead, this.buffer.length - start);
+      System.arraycopy(this.buffer, start, data, offset, firstPart);
+      System.arraycopy(this.buffer, 0, data, offset + firstPart, toRead - firstPart);
+      this.readPosition = position + toRead;
+    }
+    return toRead;
+  }
+
+  /**
+   * Drop data, must be called only by consumer.
+   *
+   * @param length max number of bytes to drop
+   * @return number of dropped bytes, multiple of frame size
+   */
+  int skip(final int length) {
+    final long position = this.readPosition;
+    int toSkip = Math.min(length, (int) (this.writePosition - position));
+    toSkip -= toSkip % this.frameSize;
+    this.readPosition = position + toSkip;
+    return toSkip;
+  }
+
+  void registerUnderrun() {
+    this.underruns.incrementAndGet();
+  }
+
+  void registerOverrun() {
+    this.overruns.incrementAndGet();
+  }
+
+  long getOverruns() {
+    return this.overruns.get();
+  }
+
+  long getUnderruns() {
+    return this.underruns.get();
+  }
+}
@@ -7,6 +7,11 @@ import java.util.Arrays;
 
 import static javax.sound.sampled.AudioFormat.Encoding.PCM_SIGNED;
 
+/**
+ * Band-limited synthesis of sound buffers. Every change of level is placed as band-limited step
+ * (windowed sinc impulse integrated during rendering) with sub-sample precision, so that work is
+ * made only for level changes and there is no aliasing of high frequency edges.
+ */
 final class SndBufferContainer {
   public static final int SND_FREQ = 48000;
   public static final int FRAME_SIZE = 4;
@@ -23,78 +28,164 @@ final class SndBufferContainer {
           SND_FREQ,
           false
   );
-  private static final int SAMPLES_PER_INT = SND_FREQ / 50;
+  static final int SAMPLES_PER_INT = SND_FREQ / 50;
   public static final int SND_BUFFER_SIZE = SAMPLES_PER_INT * FRAME_SIZE;
-  private final byte[][] allSndBuffers;
-  private byte[] soundBuffer;
-  private int bufferIndex;
+
+  private static final int STEP_PHASES = 32;
+  private static final int STEP_WIDTH = 16;
+  private static final int STEP_BITS = 15;
+  private static final double STEP_CUTOFF = 0.45d;
+  private static final int[][] STEP_KERNELS = makeStepKernels();
+
+  private final byte[] soundBuffer = new byte[SND_BUFFER_SIZE];
+
+  private final long[] deltasLeft = new long[SAMPLES_PER_INT + STEP_WIDTH];
+  private final long[] deltasRight = new long[SAMPLES_PER_INT + STEP_WIDTH];
+  private long accumulatorLeft;
+  private long accumulatorRight;
+  private int levelLeft;
+  private int levelRight;
 
   private int tstatesIntCounter = 0;
-  private int lastWrittenPosition = 0;
 
   private final TimingProfile timingProfile;
 
   public SndBufferContainer(final TimingProfile timingProfile) {
     this.timingProfile = timingProfile;
-    this.allSndBuffers = new byte[BUFFERS_NUMBER][];
-    for (int i = 0; i < BUFFERS_NUMBER; i++) {
-      this.allSndBuffers[i] = new byte[SND_BUFFER_SIZE];
-      Arrays.fill(this.allSndBuffers[i], (byte) 0xFF);
+  }
+
+  /**
+   * Make kernels of band-limited step for every sub-sample phase. Every kernel is windowed sinc
+   * impulse, its sum is exactly 1 &lt;&lt; STEP_BITS so that integrated steps have no error.
+   *
+   * @return kernels for all phases
+   */
+  private static int[][] makeStepKernels() {
+    final int[][] result = new int[STEP_PHASES][STEP_WIDTH];
+    final int half = STEP_WIDTH / 2;
+    final double[] kernel = new double[STEP_WIDTH];
+    for (int phase = 0; phase < STEP_PHASES; phase++) {
+      final double fraction = phase / (double) STEP_PHASES;
+      double sum = 0.0d;
+      for (int i = 0; i < STEP_WIDTH; i++) {
+        final double x = i - (half - 1) - fraction;
+        final double sinc = x == 0.0d ? 1.0d : Math.sin(Math.PI * 2.0d * STEP_CUTOFF * x) / (Math.PI * 2.0d * STEP_CUTOFF * x);
+        // Blackman window
+        final double w = (x + half) / STEP_WIDTH;
+        final double window = w <= 0.0d || w >= 1.0d ? 0.0d
+                : 0.42d - 0.5d * Math.cos(2.0d * Math.PI * w) + 0.08d * Math.cos(4.0d * Math.PI * w);
+        kernel[i] = sinc * window;
+        sum += kernel[i];
+      }
+      int intSum = 0;
+      for (int i = 0; i < STEP_WIDTH; i++) {
+        result[phase][i] = (int) Math.round(kernel[i] / sum * (1 << STEP_BITS));
+        intSum += result[phase][i];
+      }
+      // put rounding error into the central tap
+      result[phase][half - 1] += (1 << STEP_BITS) - intSum;
     }
-    this.soundBuffer = this.allSndBuffers[this.bufferIndex];
+    return result;
   }
 
+  /**
+   * Complete the current frame and render its samples.
+   *
+   * @param fillLevelL level of the left channel at the frame end
+   * @param fillLevelR level of the right channel at the frame end
+   * @return rendered frame, the array is reused so its content must be copied before the next call
+   */
   public byte[] nextBuffer(final int fillLevelL, final int fillLevelR) {
-    if (this.lastWrittenPosition < SND_BUFFER_SIZE - FRAME_SIZE) {
-      this.fillCurrentSndBuffer(this.lastWrittenPosition, SND_BUFFER_SIZE, fillLevelL, fillLevelR);
-    }
+    this.setValue(0, fillLevelL, fillLevelR);
+
     final byte[] result = this.soundBuffer;
-    this.bufferIndex++;
-    if (this.bufferIndex == BUFFERS_NUMBER) {
-      this.bufferIndex = 0;
+    final long[] left = this.deltasLeft;
+    final long[] right = this.deltasRight;
+    long accLeft = this.accumulatorLeft;
+    long accRight = this.accumulatorRight;
+
+    for (int i = 0, offset = 0; i < SAMPLES_PER_INT; i++) {
+      accLeft += left[i];
+      accRight += right[i];
+      final int sampleLeft = clampSample(accLeft >> STEP_BITS);
+      final int sampleRight = clampSample(accRight >> STEP_BITS);
+      result[offset++] = (byte) sampleLeft;
+      result[offset++] = (byte) (sampleLeft >> 8);
+      result[offset++] = (byte) sampleRight;
+      result[offset++] = (byte) (sampleRight >> 8);
     }
-    this.soundBuffer = this.allSndBuffers[this.bufferIndex];
+    this.accumulatorLeft = accLeft;
+    this.accumulatorRight = accRight;
+
+    // move tails of steps placed near the end of the frame into the next frame
+    System.arraycopy(left, SAMPLES_PER_INT, left, 0, STEP_WIDTH);
+    Arrays.fill(left, STEP_WIDTH, left.length, 0L);
+    System.arraycopy(right, SAMPLES_PER_INT, right, 0, STEP_WIDTH);
+    Arrays.fill(right, STEP_WIDTH, right.length, 0L);
+
     return result;
   }
 
+  private static int clampSample(final long value) {
+    return (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+  }
+
   public void resetPosition() {
-    this.tstatesIntCounter = 0;
-    this.lastWrittenPosition = 0;
+    this.resetPosition(0);
   }
 
-  public int calculatePosition(final int tstatesIntCounter) {
-    return ((tstatesIntCounter * SAMPLES_PER_INT + this.timingProfile.ulaFrameTact / 2)
-            / this.timingProfile.ulaFrameTact);
+  /**
+   * Start new frame from position, it is used to keep ti-states spent after end of the previous
+   * frame.
+   *
+   * @param tstates ti-states already spent in the new frame
+   */
+  public void resetPosition(final int tstates) {
+    this.tstatesIntCounter = tstates;
   }
 
+  /**
+   * Set levels which were on output during spent ti-states.
+   *
+   * @param deltaTstates number of ti-states since the previous call
+   * @param levelLeft    level of the left channel
+   * @param levelRight   level of the right channel
+   */
   public void setValue(final int deltaTstates, final int levelLeft, final int levelRight) {
-    this.tstatesIntCounter += deltaTstates;
-    int position = calculatePosition(tstatesIntCounter) * 4;
-
-    if (position < SND_BUFFER_SIZE) {
-      fillCurrentSndBuffer(this.lastWrittenPosition, position + FRAME_SIZE, levelLeft, levelRight);
-      this.lastWrittenPosition = position;
+    if (levelLeft != this.levelLeft || levelRight != this.levelRight) {
+      // levels are changed at start of the spent interval
+      final long scaledPosition = Math.min((long) this.tstatesIntCounter, this.timingProfile.ulaFrameTact)
+              * SAMPLES_PER_INT * STEP_PHASES / this.timingProfile.ulaFrameTact;
+      final int position = (int) Math.min(scaledPosition / STEP_PHASES, SAMPLES_PER_INT);
+      final int[] kernel = STEP_KERNELS[(int) (scaledPosition % STEP_PHASES)];
+
+      final int deltaLeft = levelLeft - this.levelLeft;
+      if (deltaLeft != 0) {
+        addStep(this.deltasLeft, position, kernel, deltaLeft);
+        this.levelLeft = levelLeft;
+      }
+      final int deltaRight = levelRight - this.levelRight;
+      if (deltaRight != 0) {
+        addStep(this.deltasRight, position, kernel, deltaRight);
+        this.levelRight = levelRight;
+      }
     }
+    this.tstatesIntCounter += deltaTstates;
   }
 
-  private void fillCurrentSndBuffer(int fromInclusive, final int toExclusive, final int levelLeft, final int levelRight) {
-    final byte lowL = (byte) levelLeft;
-    final byte highL = (byte) (levelLeft >> 8);
-    final byte lowR = (byte) levelRight;
-    final byte highR = (byte) (levelRight >> 8);
-
-    while (fromInclusive < toExclusive) {
-      if (((fromInclusive >> 1) & 1) == 0) {
-        this.soundBuffer[fromInclusive++] = lowL;
-        this.soundBuffer[fromInclusive++] = highL;
-      } else {
-        this.soundBuffer[fromInclusive++] = lowR;
-        this.soundBuffer[fromInclusive++] = highR;
-      }
+  private static void addStep(final long[] deltas, final int position, final int[] kernel, final int delta) {
+    for (int i = 0; i < STEP_WIDTH; i++) {
+      deltas[position + i] += (long) kernel[i] * delta;
     }
   }
 
   public void reset() {
     this.resetPosition();
+    Arrays.fill(this.deltasLeft, 0L);
+    Arrays.fill(this.deltasRight, 0L);
+    this.accumulatorLeft = 0L;
+    this.accumulatorRight = 0L;
+    this.levelLeft = 0;
+    this.levelRight = 0;
   }
 }
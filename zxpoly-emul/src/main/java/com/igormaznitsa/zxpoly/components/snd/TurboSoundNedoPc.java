@@ -1,5 +1,6 @@
 package com.igormaznitsa.zxpoly.components.snd;
 
+import com.igormaznitsa.zxpoly.components.BoardMode;
 import com.igormaznitsa.zxpoly.components.IoDevice;
 import com.igormaznitsa.zxpoly.components.Motherboard;
 import com.igormaznitsa.zxpoly.components.ZxPolyModule;
@@ -75,13 +76,32 @@ public final class TurboSoundNedoPc implements IoDevice, SoundLevels {
   ) {
     if (signalReset) {
       this.doReset();
+    } else if (wallclockInt) {
+      this.chipAy0.flush();
+      this.chipAy1.flush();
     }
   }
 
   @Override
   public void postStep(final int spentTstates) {
-    this.chipAy0.step(spentTstates);
-    this.chipAy1.step(spentTstates);
+    final boolean soundActive = this.beeper.isActive();
+    stepChip(this.chipAy0, soundActive, spentTstates);
+    stepChip(this.chipAy1, soundActive, spentTstates);
+  }
+
+  private static void stepChip(final Ay8910Chip chip, final boolean soundActive, final int spentTstates) {
+    if (soundActive && chip.hasActiveChannels()) {
+      chip.step(spentTstates);
+    } else {
+      // output is not heard or silent, synthesis is postponed
+      chip.skip(spentTstates);
+    }
+  }
+
+  @Override
+  public int getTstatesToNextEvent() {
+    return this.beeper.isActive() && (this.chipAy0.hasActiveChannels() || this.chipAy1.hasActiveChannels())
+            ? this.beeper.getTstatesPerSample() : NO_EVENT;
   }
 
   @Override
@@ -100,4 +120,14 @@ public final class TurboSoundNedoPc implements IoDevice, SoundLevels {
   public int getNotificationFlags() {
     return NOTIFICATION_POSTSTEP | NOTIFICATION_PRESTEP;
   }
+
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    return (port & 2) == 0 && (port & 0x8000) == 0x8000;
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return (port & 2) == 0 && (port & 0x8000) == 0x8000;
+  }
 }
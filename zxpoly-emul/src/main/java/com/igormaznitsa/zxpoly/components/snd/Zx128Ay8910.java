@@ -1,5 +1,6 @@
 package com.igormaznitsa.zxpoly.components.snd;
 
+import com.igormaznitsa.zxpoly.components.BoardMode;
 import com.igormaznitsa.zxpoly.components.IoDevice;
 import com.igormaznitsa.zxpoly.components.Motherboard;
 import com.igormaznitsa.zxpoly.components.ZxPolyModule;
@@ -51,12 +52,24 @@ public final class Zx128Ay8910 implements IoDevice, SoundLevels {
   public void preStep(int frameTiStates, boolean signalReset, boolean tstatesIntReached, boolean wallClockInt) {
     if (signalReset) {
       this.doReset();
+    } else if (wallClockInt) {
+      this.ay8910.flush();
     }
   }
 
   @Override
   public void postStep(final int spentTstates) {
-    this.ay8910.step(spentTstates);
+    if (this.beeper.isActive() && this.ay8910.hasActiveChannels()) {
+      this.ay8910.step(spentTstates);
+    } else {
+      // output is not heard or silent, synthesis is postponed
+      this.ay8910.skip(spentTstates);
+    }
+  }
+
+  @Override
+  public int getTstatesToNextEvent() {
+    return this.beeper.isActive() && this.ay8910.hasActiveChannels() ? this.beeper.getTstatesPerSample() : NO_EVENT;
   }
 
   @Override
@@ -73,4 +86,14 @@ public final class Zx128Ay8910 implements IoDevice, SoundLevels {
   public int getNotificationFlags() {
     return NOTIFICATION_POSTSTEP | NOTIFICATION_PRESTEP;
   }
+
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    return (port & 2) == 0 && (port & 0x8000) == 0x8000;
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return (port & 2) == 0 && (port & 0x8000) == 0x8000;
+  }
 }
@@ -341,6 +341,23 @@ final class ReaderTap implements ListModel<ReaderTap.TapBlock>, TapeSource {
     return this;
   }
 
+  @Override
+  public synchronized long getMachineCyclesToNextSignalChange() {
+    final long result;
+    switch (this.state) {
+      case STOPPED:
+        result = Long.MAX_VALUE;
+        break;
+      case INBETWEEN:
+        result = this.counterMain;
+        break;
+      default:
+        result = this.counterMain < 0L ? 1L : this.counterEx & 0x7FFFFFFFFFFFFFFFL;
+        break;
+    }
+    return Math.max(1L, result);
+  }
+
   @Override
   public synchronized void updateForSpentMachineCycles(final long machineCycles) {
     if (this.state != State.STOPPED) {
@@ -88,6 +88,11 @@ public class ReaderWav implements TapeSource {
     }
   }
 
+  @Override
+  public long getMachineCyclesToNextSignalChange() {
+    return this.playing ? Math.max(1L, this.timingProfile.ulaFrameTact * 50L / this.wavFile.getSampleRate()) : Long.MAX_VALUE;
+  }
+
   @Override
   public boolean isPlaying() {
     return this.playing;
@@ -9,6 +9,13 @@ public interface TapeSource {
 
   void updateForSpentMachineCycles(long spentTstates);
 
+  /**
+   * Get number of machine cycles till the next possible change of the signal.
+   *
+   * @return number of machine cycles, at least 1 if playing, Long.MAX_VALUE if stopped
+   */
+  long getMachineCyclesToNextSignalChange();
+
   void dispose();
 
   boolean isPlaying();
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.components.video;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free exchange of rendered frames between the emulation thread and readers (painter, video
+ * streamer, animation encoder). The writer copies completed frame into a buffer which is not in use
+ * and publishes it, readers take the last published frame and must release it after use. The writer
+ * never waits for readers, if all buffers are in use then new buffer is allocated or the frame is
+ * dropped.
+ * Frame can be published as palette indexes, in the case it is expanded into ARGB only if a reader
+ * requests ARGB data, images made on indexes can be drawn directly.
+ */
+final class FrameExchanger {
+
+  private static final int INITIAL_FRAMES = 3;
+  private static final int MAX_FRAMES = 8;
+
+  private final int width;
+  private final int height;
+  private final IndexColorModel colorModel;
+  private final AtomicReference<Frame> lastFrame = new AtomicReference<>();
+  private Frame[] frames;
+  private long publishedFrames;
+
+  FrameExchanger(final int width, final int height, final int[] palette) {
+    this.width = width;
+    this.height = height;
+    this.colorModel = new IndexColorModel(8, palette.length, palette, 0, false, -1, DataBuffer.TYPE_BYTE);
+    this.frames = new Frame[INITIAL_FRAMES];
+    for (int i = 0; i < this.frames.length; i++) {
+      this.frames[i] = new Frame(width, height, this.colorModel);
+    }
+    this.lastFrame.set(this.frames[0]);
+  }
+
+  /**
+   * Publish frame, must be called only by one writer thread.
+   *
+   * @param argb ARGB data of the frame
+   * @return false if there was no free buffer and the frame has been dropped
+   */
+  boolean publish(final int[] argb) {
+    final Frame target = this.findFreeFrame();
+    if (target == null) {
+      return false;
+    }
+    System.arraycopy(argb, 0, target.argb, 0, target.argb.length);
+    target.indexed = false;
+    this.commit(target);
+    return true;
+  }
+
+  /**
+   * Publish frame made of palette indexes, must be called only by one writer thread.
+   *
+   * @param indexes indexes in the exchanger palette for the frame pixels
+   * @return false if there was no free buffer and the frame has been dropped
+   */
+  boolean publish(final byte[] indexes) {
+    final Frame target = this.findFreeFrame();
+    if (target == null) {
+      return false;
+    }
+    System.arraycopy(indexes, 0, target.indexes, 0, target.indexes.length);
+    target.indexed = true;
+    target.argbExpanded = false;
+    this.commit(target);
+    return true;
+  }
+
+  private Frame findFreeFrame() {
+    final Frame current = this.lastFrame.get();
+    for (final Frame f : this.frames) {
+      if (f != current && f.users.compareAndSet(0, -1)) {
+        return f;
+      }
+    }
+    if (this.frames.length >= MAX_FRAMES) {
+      return null;
+    }
+    final Frame result = new Frame(this.width, this.height, this.colorModel);
+    result.users.set(-1);
+    this.frames = Arrays.copyOf(this.frames, this.frames.length + 1);
+    this.frames[this.frames.length - 1] = result;
+    return result;
+  }
+
+  private void commit(final Frame frame) {
+    frame.sequence = ++this.publishedFrames;
+    frame.users.set(0);
+    this.lastFrame.set(frame);
+  }
+
+  /**
+   * Get the last published frame, it must be released after use.
+   *
+   * @return the last published frame
+   */
+  Frame acquire() {
+    while (true) {
+      final Frame frame = this.lastFrame.get();
+      if (frame.retain()) {
+        return frame;
+      }
+      // the frame is overwritten so that there is new published one
+      Thread.onSpinWait();
+    }
+  }
+
+  static final class Frame {
+    private final BufferedImage image;
+    private final int[] argb;
+    private final BufferedImage indexedImage;
+    private final byte[] indexes;
+    private final int[] palette;
+    private final AtomicInteger users = new AtomicInteger();
+    private volatile long sequence;
+    private boolean indexed;
+    private boolean argbExpanded;
+
+    private Frame(final int width, final int height, final IndexColorModel colorModel) {
+      this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      this.image.setAccelerationPriority(1.0f);
+      this.argb = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+      this.indexedImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+      this.indexes = ((DataBufferByte) this.indexedImage.getRaster().getDataBuffer()).getData();
+      this.palette = new int[colorModel.getMapSize()];
+      colorModel.getRGBs(this.palette);
+    }
+
+    /**
+     * Get image of the frame to be drawn, it can be either RGB or indexed one.
+     *
+     * @return image of the frame
+     */
+    BufferedImage getImage() {
+      return this.indexed ? this.indexedImage : this.image;
+    }
+
+    /**
+     * Get RGB image of the frame, if the frame is indexed then it is expanded.
+     *
+     * @return RGB image based on int data buffer
+     */
+    BufferedImage getArgbImage() {
+      this.ensureArgb();
+      return this.image;
+    }
+
+    int[] getArgb() {
+      this.ensureArgb();
+      return this.argb;
+    }
+
+    boolean isIndexed() {
+      return this.indexed;
+    }
+
+    byte[] getIndexes() {
+      return this.indexes;
+    }
+
+    int[] getPalette() {
+      return this.palette;
+    }
+
+    private synchronized void ensureArgb() {
+      if (this.indexed && !this.argbExpanded) {
+        final byte[] src = this.indexes;
+        final int[] dst = this.argb;
+        final int[] pal = this.palette;
+        for (int i = 0; i < dst.length; i++) {
+          dst[i] = pal[src[i] & 0xFF];
+        }
+        this.argbExpanded = true;
+      }
+    }
+
+    /**
+     * Get sequence number of published frame, it is unique for every published content.
+     *
+     * @return sequence number, zero for initial empty frame
+     */
+    long getSequence() {
+      return this.sequence;
+    }
+
+    private boolean retain() {
+      while (true) {
+        final int value = this.users.get();
+        if (value < 0) {
+          return false;
+        }
+        if (this.users.compareAndSet(value, value + 1)) {
+          return true;
+        }
+      }
+    }
+
+    void release() {
+      this.users.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.igormaznitsa.zxpoly.components.video;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Makes zoomed copy of frame for integer zoom factors by pixel and row replication, so that the
+ * result can be drawn without scaling by Graphics2D. The last result is cached and reused while
+ * the source frame and its processing are not changed. It is not thread safe and must be used only
+ * from painting thread.
+ */
+final class IntegerZoomRenderer {
+
+  private static final float ZOOM_EPSILON = 0.001f;
+  private static final int STRIP_ROWS = 32;
+
+  private final int[] palette = new int[256];
+
+  private BufferedImage zoomedImage;
+  private int[] zoomedData;
+  private int factor;
+
+  private long cachedSequence = -1L;
+  private Object cachedProcessing;
+  private int cachedBorderColor;
+
+  /**
+   * Find integer factor for zoom.
+   *
+   * @param zoom zoom value
+   * @return integer factor greater than 1, or 0 if zoom is fractional or not greater than 1
+   */
+  static int findIntegerFactor(final float zoom) {
+    final int rounded = Math.round(zoom);
+    return rounded > 1 && Math.abs(zoom - rounded) < ZOOM_EPSILON ? rounded : 0;
+  }
+
+  /**
+   * Get cached zoomed image if it has been made for the same frame and processing.
+   *
+   * @param factor      integer zoom factor
+   * @param sequence    sequence number of source frame
+   * @param processing  object describing processing of the frame, can be null
+   * @param borderColor border color used for processing
+   * @return cached image or null if it should be rendered
+   */
+  BufferedImage findCached(final int factor, final long sequence, final Object processing, final int borderColor) {
+    if (this.zoomedImage != null
+            && this.factor == factor
+            && this.cachedSequence == sequence
+            && this.cachedProcessing == processing
+            && this.cachedBorderColor == borderColor) {
+      return this.zoomedImage;
+    }
+    return null;
+  }
+
+  /**
+   * Make zoomed copy of image and cache it.
+   *
+   * @param source      source image, must be based on either int data buffer or byte indexes
+   * @param factor      integer zoom factor
+   * @param sequence    sequence number of source frame
+   * @param processing  object describing processing of the frame, can be null
+   * @param borderColor border color used for processing
+   * @return zoomed image, it is reused by next calls
+   */
+  BufferedImage render(
+          final BufferedImage source,
+          final int factor,
+          final long sequence,
+          final Object processing,
+          final int borderColor
+  ) {
+    final int srcWidth = source.getWidth();
+    final int srcHeight = source.getHeight();
+    final int dstWidth = srcWidth * factor;
+
+    if (this.zoomedImage == null
+            || this.factor != factor
+            || this.zoomedImage.getWidth() != dstWidth
+            || this.zoomedImage.getHeight() != srcHeight * factor) {
+      // drop old image before allocation of new one, it can be big
+      this.zoomedImage = null;
+      this.zoomedData = null;
+      this.zoomedImage = new BufferedImage(dstWidth, srcHeight * factor, BufferedImage.TYPE_INT_RGB);
+      this.zoomedData = ((DataBufferInt) this.zoomedImage.getRaster().getDataBuffer()).getData();
+      this.factor = factor;
+    }
+
+    final int[] src;
+    final byte[] srcIndexes;
+    final int[] palette;
+    if (source.getColorModel() instanceof IndexColorModel) {
+      final IndexColorModel colorModel = (IndexColorModel) source.getColorModel();
+      src = null;
+      srcIndexes = ((DataBufferByte) source.getRaster().getDataBuffer()).getData();
+      palette = this.palette;
+      colorModel.getRGBs(palette);
+      Arrays.fill(palette, colorModel.getMapSize(), palette.length, 0);
+    } else {
+      src = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+      srcIndexes = null;
+      palette = null;
+    }
+    final int[] dst = this.zoomedData;
+
+    IntStream.range(0, (srcHeight + STRIP_ROWS - 1) / STRIP_ROWS).parallel().forEach(strip -> {
+      final int toRow = Math.min(srcHeight, (strip + 1) * STRIP_ROWS);
+      for (int y = strip * STRIP_ROWS; y < toRow; y++) {
+        final int dstRowStart = y * factor * dstWidth;
+        int srcOffset = y * srcWidth;
+        int dstOffset = dstRowStart;
+        for (int x = 0; x < srcWidth; x++) {
+          final int color = src == null ? palette[srcIndexes[srcOffset++] & 0xFF] : src[srcOffset++];
+          for (int i = 0; i < factor; i++) {
+            dst[dstOffset++] = color;
+          }
+        }
+        for (int i = 1; i < factor; i++) {
+          System.arraycopy(dst, dstRowStart, dst, dstRowStart + i * dstWidth, dstWidth);
+        }
+      }
+    });
+
+    this.cachedSequence = sequence;
+    this.cachedProcessing = processing;
+    this.cachedBorderColor = borderColor;
+    return this.zoomedImage;
+  }
+}
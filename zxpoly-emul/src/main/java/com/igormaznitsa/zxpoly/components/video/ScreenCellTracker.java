@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.components.video;
+
+import static java.util.Arrays.fill;
+
+/**
+ * Keeps track of changed 8x8 character cells of ZX-Spectrum screen. Every cell has two flags,
+ * for even and odd lines of rendered buffer, so that interlaced rendering clears only its part.
+ */
+public final class ScreenCellTracker {
+
+  public static final int CELLS = 32 * 24;
+
+  static final int FLAG_EVEN = 1;
+  static final int FLAG_ODD = 2;
+  static final int FLAG_ALL = FLAG_EVEN | FLAG_ODD;
+
+  private static final int SCREEN_AREA_SIZE = 0x1B00;
+
+  private final byte[] cells = new byte[CELLS];
+  private volatile int screenHeapPages;
+
+  public ScreenCellTracker() {
+    fill(this.cells, (byte) FLAG_ALL);
+  }
+
+  /**
+   * Mark cell if heap address belongs to screen area of a shown heap page.
+   *
+   * @param heapAddress address in board heap
+   */
+  public void onHeapWrite(final int heapAddress) {
+    if (this.isScreenHeapAddress(heapAddress)) {
+      this.cells[toCellIndex(heapAddress & 0x3FFF)] = FLAG_ALL;
+    }
+  }
+
+  /**
+   * Check that heap address belongs to screen area of a shown heap page.
+   *
+   * @param heapAddress address in board heap
+   * @return true if write to the address changes shown screen
+   */
+  public boolean isScreenHeapAddress(final int heapAddress) {
+    return (heapAddress & 0x3FFF) < SCREEN_AREA_SIZE
+            && (this.screenHeapPages & (1 << (heapAddress >>> 14))) != 0;
+  }
+
+  /**
+   * Mark cell for offset inside screen page, offsets out of screen area are ignored.
+   *
+   * @param screenOffset offset inside 16 kb page
+   */
+  public void onScreenWrite(final int screenOffset) {
+    if (screenOffset < SCREEN_AREA_SIZE) {
+      this.cells[toCellIndex(screenOffset)] = FLAG_ALL;
+    }
+  }
+
+  public void markAll() {
+    fill(this.cells, (byte) FLAG_ALL);
+  }
+
+  void setScreenHeapPages(final int pageMask) {
+    this.screenHeapPages = pageMask;
+  }
+
+  void mark(final int cellIndex) {
+    this.cells[cellIndex] = FLAG_ALL;
+  }
+
+  /**
+   * Check cell and clear its flags for rendered lines.
+   *
+   * @param cellIndex cell index
+   * @param flags     flags of lines to be rendered
+   * @return true if cell must be rendered
+   */
+  boolean takeCell(final int cellIndex, final int flags) {
+    final int state = this.cells[cellIndex];
+    if ((state & flags) == 0) {
+      return false;
+    }
+    this.cells[cellIndex] = (byte) (state & ~flags);
+    return true;
+  }
+
+  /**
+   * Check cell without clearing its flags.
+   *
+   * @param cellIndex cell index
+   * @param flags     flags of lines to be rendered
+   * @return true if cell must be rendered
+   */
+  boolean isMarked(final int cellIndex, final int flags) {
+    return (this.cells[cellIndex] & flags) != 0;
+  }
+
+  static int toCellIndex(final int screenOffset) {
+    if (screenOffset < 0x1800) {
+      return ((screenOffset & 0x1800) >> 3) | (screenOffset & 0xFF);
+    } else {
+      return screenOffset - 0x1800;
+    }
+  }
+}
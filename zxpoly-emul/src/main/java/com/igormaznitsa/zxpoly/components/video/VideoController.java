@@ -35,6 +35,7 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
 import java.awt.image.RenderedImage;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Objects;
 import java.util.concurrent.locks.ReentrantLock;
@@ -89,6 +90,7 @@ public final class VideoController extends JComponent
           VideoController.class.getResourceAsStream("/com/igormaznitsa/zxpoly/pal/spec256.raw.pal"),
           true);
   private static final int PREFERRED_BORDER_WIDTH = 64;
+  private static final int SCAN_BYTES = 192 * 32;
   private final Dimension baseSize;
   private static final int[] PALETTE_ALIGNED_ZXPOLY =
           Utils.alignPaletteColors(PALETTE_ZXPOLY, PALETTE_SPEC256);
@@ -105,11 +107,16 @@ public final class VideoController extends JComponent
   private static volatile int gfxUpColorsMixed = 64;
   private static volatile int gfxDownColorsMixed = 0;
   private static volatile int[] gfxPrerenderedBack = null;
+  private static volatile int gfxSettingsVersion = 0;
   private final VirtualKeyboardDecoration vkbdContainer;
   private final Motherboard board;
   private final ReentrantLock bufferLocker = new ReentrantLock();
   private final BufferedImage bufferImage;
   private final int[] bufferImageRgbData;
+  private final byte[] bufferIndexData = new byte[SCREEN_WIDTH * SCREEN_HEIGHT];
+  private final FrameExchanger frameExchanger = new FrameExchanger(SCREEN_WIDTH, SCREEN_HEIGHT, PALETTE_ZXPOLY);
+  private final IntegerZoomRenderer integerZoomRenderer = new IntegerZoomRenderer();
+  private boolean framePublishPending;
   private final ZxPolyModule[] modules;
   private final byte[] borderLineColors;
   private final byte[] outBorderLineColors;
@@ -127,6 +134,20 @@ public final class VideoController extends JComponent
   private boolean fullScreenMode;
   private VirtualKeyboardRender vkbdRender;
   private final TimingProfile timingProfile;
+  private final ScreenCellTracker screenCellTracker;
+  private final boolean[] changedCells = new boolean[ScreenCellTracker.CELLS];
+  private final int[] lastScreenHeapAddress = new int[4];
+  private int lastRenderedVideoMode = -1;
+  private int lastGfxSettingsVersion = -1;
+  private boolean lastFlashActive;
+  private volatile boolean scanlineRendering;
+  private final boolean[] scanCells = new boolean[ScreenCellTracker.CELLS];
+  private LineRenderMode scanRenderLines = LineRenderMode.ALL;
+  private int scanPosition;
+  private int scanTakenRows;
+  private int scanFrameTiStates;
+  private boolean scanBufferChanged;
+  private int lastBorderLineIndex;
 
   public VideoController(final TimingProfile timingProfile, final Motherboard board, final VirtualKeyboardDecoration vkbdContainer) {
     super();
@@ -145,6 +166,7 @@ public final class VideoController extends JComponent
 
     this.board = board;
     this.modules = board.getModules();
+    this.screenCellTracker = board.getScreenCellTracker();
 
     this.bufferImage = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
     this.bufferImage.setAccelerationPriority(1.0f);
@@ -193,6 +215,7 @@ public final class VideoController extends JComponent
       }
       gfxPrerenderedBack = prerendered;
     }
+    gfxSettingsVersion++;
   }
 
   public static int toZxPolyIndex(final byte spec256PaletteIndex) {
@@ -237,7 +260,10 @@ public final class VideoController extends JComponent
           final LineRenderMode renderLines,
           final ZxPolyModule[] modules,
           final int[] pixelRgbBuffer,
-          final boolean flashActive
+          final boolean flashActive,
+          final boolean[] cellMask,
+          final int fromScanByte,
+          final int toScanByte
   ) {
     final int[] preRenderedBack = gfxPrerenderedBack;
     final boolean bkOverFF = gfxBackOverFF;
@@ -251,12 +277,19 @@ public final class VideoController extends JComponent
     int offset = 0;
     int aoffset = 0;
     int coordY;
-    for (int i = 0; i < 0x1800; i++) {
-      if ((i & 0x1F) == 0) {
+    for (int scanByte = fromScanByte; scanByte < toScanByte; scanByte++) {
+      final int i = scanByteToScreenOffset(scanByte);
+      if ((i & 0x1F) == 0 || scanByte == fromScanByte) {
         // the first byte in the line
         coordY = extractYFromAddress(i);
         aoffset = calcAttributeAddressZxMode(i);
-        offset = coordY << 10;
+        offset = (coordY << 10) | ((i & 0x1F) << 4);
+      }
+
+      if (cellMask != null && !cellMask[ScreenCellTracker.toCellIndex(i)]) {
+        offset += 16;
+        aoffset++;
+        continue;
       }
 
       final int attrOffset = aoffset++;
@@ -345,8 +378,11 @@ public final class VideoController extends JComponent
   private static void fillDataBufferForZxSpectrum128Mode(
           final LineRenderMode renderLines,
           final ZxPolyModule[] modules,
-          final int[] pixelRgbBuffer,
-          final boolean flashActive
+          final byte[] pixelIndexBuffer,
+          final boolean flashActive,
+          final boolean[] cellMask,
+          final int fromScanByte,
+          final int toScanByte
   ) {
     final ZxPolyModule mainModule = modules[0];
     final byte[] heap = mainModule.getMotherboard().getHeapRam();
@@ -363,14 +399,21 @@ public final class VideoController extends JComponent
     int offset = 0;
     int attributeOffset = 0;
 
-    for (int i = 0; i < 0x1800; i++) {
-      if ((i & 0x1F) == 0) {
+    for (int scanByte = fromScanByte; scanByte < toScanByte; scanByte++) {
+      final int i = scanByteToScreenOffset(scanByte);
+      if ((i & 0x1F) == 0 || scanByte == fromScanByte) {
         // the first byte in the line
         final int y = extractYFromAddress(i);
-        offset = y << 10;
+        offset = (y << 10) | ((i & 0x1F) << 4);
         attributeOffset = calcAttributeAddressZxMode(i);
       }
 
+      if (cellMask != null && !cellMask[ScreenCellTracker.toCellIndex(i)]) {
+        offset += 16;
+        attributeOffset++;
+        continue;
+      }
+
       final int attrOffset = attributeOffset++;
 
       int effectiveAttribute = heap[videoRamHeapOffset + attrOffset];
@@ -381,34 +424,34 @@ public final class VideoController extends JComponent
 
       int currentPixels = heap[videoRamHeapOffset + i] & 0xFF;
 
-      final int inkColor = extractInkPaletteColor(effectiveAttribute);
-      final int paperColor = extractPaperPaletteColor(effectiveAttribute);
+      final byte inkColor = extractInkPaletteIndex(effectiveAttribute);
+      final byte paperColor = extractPaperPaletteIndex(effectiveAttribute);
 
       int x = 8;
 
       while (x-- > 0) {
-        final int color = (currentPixels & 0x80) == 0 ? paperColor : inkColor;
+        final byte color = (currentPixels & 0x80) == 0 ? paperColor : inkColor;
         currentPixels <<= 1;
 
         switch (renderLines) {
           case ALL: {
-            pixelRgbBuffer[offset++] = color;
-            pixelRgbBuffer[offset] = color;
+            pixelIndexBuffer[offset++] = color;
+            pixelIndexBuffer[offset] = color;
             offset += SCREEN_WIDTH;
 
-            pixelRgbBuffer[offset--] = color;
-            pixelRgbBuffer[offset] = color;
+            pixelIndexBuffer[offset--] = color;
+            pixelIndexBuffer[offset] = color;
             offset -= SCREEN_WIDTH - 2;
           }
           break;
           case EVEN: {
-            pixelRgbBuffer[offset++] = color;
-            pixelRgbBuffer[offset++] = color;
+            pixelIndexBuffer[offset++] = color;
+            pixelIndexBuffer[offset++] = color;
           }
           break;
           case ODD: {
-            pixelRgbBuffer[SCREEN_WIDTH + offset++] = color;
-            pixelRgbBuffer[SCREEN_WIDTH + offset++] = color;
+            pixelIndexBuffer[SCREEN_WIDTH + offset++] = color;
+            pixelIndexBuffer[SCREEN_WIDTH + offset++] = color;
           }
           break;
           default:
@@ -422,8 +465,11 @@ public final class VideoController extends JComponent
           final LineRenderMode renderLines,
           final int zxPolyVideoMode,
           final ZxPolyModule[] modules,
-          final int[] pixelRgbBuffer,
-          final boolean flashActive
+          final byte[] pixelIndexBuffer,
+          final boolean flashActive,
+          final boolean[] cellMask,
+          final int fromScanByte,
+          final int toScanByte
   ) {
     switch (zxPolyVideoMode) {
       case VIDEOMODE_ZX48_CPU0:
@@ -435,14 +481,21 @@ public final class VideoController extends JComponent
         int offset = 0;
         int attributeOffset = 0;
 
-        for (int i = 0; i < 0x1800; i++) {
-          if ((i & 0x1F) == 0) {
+        for (int scanByte = fromScanByte; scanByte < toScanByte; scanByte++) {
+          final int i = scanByteToScreenOffset(scanByte);
+          if ((i & 0x1F) == 0 || scanByte == fromScanByte) {
             // the first byte in the line
             final int y = extractYFromAddress(i);
-            offset = y << 10;
+            offset = (y << 10) | ((i & 0x1F) << 4);
             attributeOffset = calcAttributeAddressZxMode(i);
           }
 
+          if (cellMask != null && !cellMask[ScreenCellTracker.toCellIndex(i)]) {
+            offset += 16;
+            attributeOffset++;
+            continue;
+          }
+
           final int attrOffset = attributeOffset++;
 
           int effectiveAttribute = sourceModule.readVideo(attrOffset);
@@ -453,33 +506,33 @@ public final class VideoController extends JComponent
 
           int videoPixels = sourceModule.readVideo(i);
 
-          final int inkColor = extractInkPaletteColor(effectiveAttribute);
-          final int paperColor = extractPaperPaletteColor(effectiveAttribute);
+          final byte inkColor = extractInkPaletteIndex(effectiveAttribute);
+          final byte paperColor = extractPaperPaletteIndex(effectiveAttribute);
 
           int x = 8;
           while (x-- > 0) {
-            final int color = (videoPixels & 0x80) == 0 ? paperColor : inkColor;
+            final byte color = (videoPixels & 0x80) == 0 ? paperColor : inkColor;
             videoPixels <<= 1;
 
             switch (renderLines) {
               case ALL: {
-                pixelRgbBuffer[offset++] = color;
-                pixelRgbBuffer[offset] = color;
+                pixelIndexBuffer[offset++] = color;
+                pixelIndexBuffer[offset] = color;
                 offset += SCREEN_WIDTH;
 
-                pixelRgbBuffer[offset--] = color;
-                pixelRgbBuffer[offset] = color;
+                pixelIndexBuffer[offset--] = color;
+                pixelIndexBuffer[offset] = color;
                 offset -= SCREEN_WIDTH - 2;
               }
               break;
               case EVEN: {
-                pixelRgbBuffer[offset++] = color;
-                pixelRgbBuffer[offset++] = color;
+                pixelIndexBuffer[offset++] = color;
+                pixelIndexBuffer[offset++] = color;
               }
               break;
               case ODD: {
-                pixelRgbBuffer[SCREEN_WIDTH + (offset++)] = color;
-                pixelRgbBuffer[SCREEN_WIDTH + (offset++)] = color;
+                pixelIndexBuffer[SCREEN_WIDTH + (offset++)] = color;
+                pixelIndexBuffer[SCREEN_WIDTH + (offset++)] = color;
               }
               break;
               default:
@@ -500,14 +553,21 @@ public final class VideoController extends JComponent
         final ZxPolyModule module2 = modules[2];
         final ZxPolyModule module3 = modules[3];
 
-        for (int i = 0; i < 0x1800; i++) {
-          if ((i & 0x1F) == 0) {
+        for (int scanByte = fromScanByte; scanByte < toScanByte; scanByte++) {
+          final int i = scanByteToScreenOffset(scanByte);
+          if ((i & 0x1F) == 0 || scanByte == fromScanByte) {
             // the first byte in the line
             final int y = extractYFromAddress(i);
-            offset = y << 10;
+            offset = (y << 10) | ((i & 0x1F) << 4);
             attributeoffset = calcAttributeAddressZxMode(i);
           }
 
+          if (cellMask != null && !cellMask[ScreenCellTracker.toCellIndex(i)]) {
+            offset += 16;
+            attributeoffset++;
+            continue;
+          }
+
           int videoValue0 = module0.readVideo(i);
           int videoValue1 = module1.readVideo(i);
           int videoValue2 = module2.readVideo(i);
@@ -517,8 +577,8 @@ public final class VideoController extends JComponent
             case VIDEOMODE_ZXPOLY_256x192_INKPAPER_MASK: {
               final int attrModule0 = module0.readVideo(attributeoffset++);
 
-              final int inkColor = extractInkColor(attrModule0, flashActive);
-              final int paperColor = extractPaperColor(attrModule0, flashActive);
+              final byte inkColor = extractInkIndex(attrModule0, flashActive);
+              final byte paperColor = extractPaperIndex(attrModule0, flashActive);
 
               int x = 8;
               if (inkColor == paperColor) {
@@ -526,23 +586,23 @@ public final class VideoController extends JComponent
 
                   switch (renderLines) {
                     case ALL: {
-                      pixelRgbBuffer[offset++] = inkColor;
-                      pixelRgbBuffer[offset] = inkColor;
+                      pixelIndexBuffer[offset++] = inkColor;
+                      pixelIndexBuffer[offset] = inkColor;
                       offset += SCREEN_WIDTH;
 
-                      pixelRgbBuffer[offset--] = inkColor;
-                      pixelRgbBuffer[offset] = inkColor;
+                      pixelIndexBuffer[offset--] = inkColor;
+                      pixelIndexBuffer[offset] = inkColor;
                       offset -= SCREEN_WIDTH - 2;
                     }
                     break;
                     case EVEN: {
-                      pixelRgbBuffer[offset++] = inkColor;
-                      pixelRgbBuffer[offset++] = inkColor;
+                      pixelIndexBuffer[offset++] = inkColor;
+                      pixelIndexBuffer[offset++] = inkColor;
                     }
                     break;
                     case ODD: {
-                      pixelRgbBuffer[SCREEN_WIDTH + offset++] = inkColor;
-                      pixelRgbBuffer[SCREEN_WIDTH + offset++] = inkColor;
+                      pixelIndexBuffer[SCREEN_WIDTH + offset++] = inkColor;
+                      pixelIndexBuffer[SCREEN_WIDTH + offset++] = inkColor;
                     }
                     break;
                     default:
@@ -561,27 +621,27 @@ public final class VideoController extends JComponent
                   videoValue2 <<= 1;
                   videoValue3 <<= 1;
 
-                  final int color = PALETTE_ZXPOLY[value];
+                  final byte color = (byte) value;
 
                   switch (renderLines) {
                     case ALL: {
-                      pixelRgbBuffer[offset++] = color;
-                      pixelRgbBuffer[offset] = color;
+                      pixelIndexBuffer[offset++] = color;
+                      pixelIndexBuffer[offset] = color;
                       offset += SCREEN_WIDTH;
 
-                      pixelRgbBuffer[offset--] = color;
-                      pixelRgbBuffer[offset] = color;
+                      pixelIndexBuffer[offset--] = color;
+                      pixelIndexBuffer[offset] = color;
                       offset -= SCREEN_WIDTH - 2;
                     }
                     break;
                     case EVEN: {
-                      pixelRgbBuffer[offset++] = color;
-                      pixelRgbBuffer[offset++] = color;
+                      pixelIndexBuffer[offset++] = color;
+                      pixelIndexBuffer[offset++] = color;
                     }
                     break;
                     case ODD: {
-                      pixelRgbBuffer[SCREEN_WIDTH + (offset++)] = color;
-                      pixelRgbBuffer[SCREEN_WIDTH + (offset++)] = color;
+                      pixelIndexBuffer[SCREEN_WIDTH + (offset++)] = color;
+                      pixelIndexBuffer[SCREEN_WIDTH + (offset++)] = color;
                     }
                     break;
                     default:
@@ -594,39 +654,39 @@ public final class VideoController extends JComponent
             case VIDEOMODE_ZXPOLY_256x192_FLASH_MASK: {
               final int attrModule0 = module0.readVideo(attributeoffset++);
 
-              final int inkColorMod0 = extractInkColor(attrModule0, false);
-              final int paperColorMod0 = extractPaperColor(attrModule0, false);
+              final byte inkColorMod0 = extractInkIndex(attrModule0, false);
+              final byte paperColorMod0 = extractPaperIndex(attrModule0, false);
 
               int x = 8;
               if ((attrModule0 & 0b1000_0000) == 0) {
                 while (x-- > 0) {
                   switch (renderLines) {
                     case ALL: {
-                      pixelRgbBuffer[offset] =
+                      pixelIndexBuffer[offset] =
                               (videoValue0 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
 
-                      pixelRgbBuffer[offset + SCREEN_WIDTH] =
+                      pixelIndexBuffer[offset + SCREEN_WIDTH] =
                               (videoValue2 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
 
-                      pixelRgbBuffer[++offset] =
+                      pixelIndexBuffer[++offset] =
                               (videoValue1 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
 
-                      pixelRgbBuffer[offset++ + SCREEN_WIDTH] =
+                      pixelIndexBuffer[offset++ + SCREEN_WIDTH] =
                               (videoValue3 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
 
                     }
                     break;
                     case EVEN: {
-                      pixelRgbBuffer[offset++] =
+                      pixelIndexBuffer[offset++] =
                               (videoValue0 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
-                      pixelRgbBuffer[offset++] =
+                      pixelIndexBuffer[offset++] =
                               (videoValue1 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
                     }
                     break;
                     case ODD: {
-                      pixelRgbBuffer[offset++ + SCREEN_WIDTH] =
+                      pixelIndexBuffer[offset++ + SCREEN_WIDTH] =
                               (videoValue2 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
-                      pixelRgbBuffer[offset++ + SCREEN_WIDTH] =
+                      pixelIndexBuffer[offset++ + SCREEN_WIDTH] =
                               (videoValue3 & 0x80) == 0 ? paperColorMod0 : inkColorMod0;
                     }
                     break;
@@ -643,23 +703,23 @@ public final class VideoController extends JComponent
                   while (x-- > 0) {
                     switch (renderLines) {
                       case ALL: {
-                        pixelRgbBuffer[offset++] = inkColorMod0;
-                        pixelRgbBuffer[offset] = inkColorMod0;
+                        pixelIndexBuffer[offset++] = inkColorMod0;
+                        pixelIndexBuffer[offset] = inkColorMod0;
                         offset += SCREEN_WIDTH;
 
-                        pixelRgbBuffer[offset--] = inkColorMod0;
-                        pixelRgbBuffer[offset] = inkColorMod0;
+                        pixelIndexBuffer[offset--] = inkColorMod0;
+                        pixelIndexBuffer[offset] = inkColorMod0;
                         offset -= SCREEN_WIDTH - 2;
                       }
                       break;
                       case EVEN: {
-                        pixelRgbBuffer[offset++] = inkColorMod0;
-                        pixelRgbBuffer[offset++] = inkColorMod0;
+                        pixelIndexBuffer[offset++] = inkColorMod0;
+                        pixelIndexBuffer[offset++] = inkColorMod0;
                       }
                       break;
                       case ODD: {
-                        pixelRgbBuffer[SCREEN_WIDTH + (offset++)] = inkColorMod0;
-                        pixelRgbBuffer[SCREEN_WIDTH + (offset++)] = inkColorMod0;
+                        pixelIndexBuffer[SCREEN_WIDTH + (offset++)] = inkColorMod0;
+                        pixelIndexBuffer[SCREEN_WIDTH + (offset++)] = inkColorMod0;
                       }
                       break;
                       default:
@@ -678,27 +738,27 @@ public final class VideoController extends JComponent
                     videoValue2 <<= 1;
                     videoValue3 <<= 1;
 
-                    final int color = PALETTE_ZXPOLY[value];
+                    final byte color = (byte) value;
 
                     switch (renderLines) {
                       case ALL: {
-                        pixelRgbBuffer[offset++] = color;
-                        pixelRgbBuffer[offset] = color;
+                        pixelIndexBuffer[offset++] = color;
+                        pixelIndexBuffer[offset] = color;
                         offset += SCREEN_WIDTH;
 
-                        pixelRgbBuffer[offset--] = color;
-                        pixelRgbBuffer[offset] = color;
+                        pixelIndexBuffer[offset--] = color;
+                        pixelIndexBuffer[offset] = color;
                         offset -= SCREEN_WIDTH - 2;
                       }
                       break;
                       case EVEN: {
-                        pixelRgbBuffer[offset++] = color;
-                        pixelRgbBuffer[offset++] = color;
+                        pixelIndexBuffer[offset++] = color;
+                        pixelIndexBuffer[offset++] = color;
                       }
                       break;
                       case ODD: {
-                        pixelRgbBuffer[SCREEN_WIDTH + offset++] = color;
-                        pixelRgbBuffer[SCREEN_WIDTH + offset++] = color;
+                        pixelIndexBuffer[SCREEN_WIDTH + offset++] = color;
+                        pixelIndexBuffer[SCREEN_WIDTH + offset++] = color;
                       }
                       break;
                       default:
@@ -722,27 +782,27 @@ public final class VideoController extends JComponent
                 videoValue2 <<= 1;
                 videoValue3 <<= 1;
 
-                final int color = PALETTE_ZXPOLY[value];
+                final byte color = (byte) value;
 
                 switch (renderLines) {
                   case ALL: {
-                    pixelRgbBuffer[offset++] = color;
-                    pixelRgbBuffer[offset] = color;
+                    pixelIndexBuffer[offset++] = color;
+                    pixelIndexBuffer[offset] = color;
                     offset += SCREEN_WIDTH;
 
-                    pixelRgbBuffer[offset--] = color;
-                    pixelRgbBuffer[offset] = color;
+                    pixelIndexBuffer[offset--] = color;
+                    pixelIndexBuffer[offset] = color;
                     offset -= SCREEN_WIDTH - 2;
                   }
                   break;
                   case EVEN: {
-                    pixelRgbBuffer[offset++] = color;
-                    pixelRgbBuffer[offset++] = color;
+                    pixelIndexBuffer[offset++] = color;
+                    pixelIndexBuffer[offset++] = color;
                   }
                   break;
                   case ODD: {
-                    pixelRgbBuffer[SCREEN_WIDTH + offset++] = color;
-                    pixelRgbBuffer[SCREEN_WIDTH + offset++] = color;
+                    pixelIndexBuffer[SCREEN_WIDTH + offset++] = color;
+                    pixelIndexBuffer[SCREEN_WIDTH + offset++] = color;
                   }
                   break;
                   default:
@@ -764,14 +824,21 @@ public final class VideoController extends JComponent
         final ZxPolyModule module2 = modules[2];
         final ZxPolyModule module3 = modules[3];
 
-        for (int i = 0; i < 0x1800; i++) {
-          if ((i & 0x1F) == 0) {
+        for (int scanByte = fromScanByte; scanByte < toScanByte; scanByte++) {
+          final int i = scanByteToScreenOffset(scanByte);
+          if ((i & 0x1F) == 0 || scanByte == fromScanByte) {
             // the first byte in the line
             final int y = extractYFromAddress(i);
-            offset = y << 10;
+            offset = (y << 10) | ((i & 0x1F) << 4);
             attributeOffset = calcAttributeAddressZxMode(i);
           }
 
+          if (cellMask != null && !cellMask[ScreenCellTracker.toCellIndex(i)]) {
+            offset += 16;
+            attributeOffset++;
+            continue;
+          }
+
           int videoValue0 = module0.readVideo(i);
           final int attribute0 = module0.readVideo(attributeOffset);
 
@@ -788,38 +855,38 @@ public final class VideoController extends JComponent
           while (x-- > 0) {
             switch (renderLines) {
               case ALL: {
-                pixelRgbBuffer[offset] =
-                        (videoValue0 & 0x80) == 0 ? extractPaperColor(attribute0, flashActive) :
-                                extractInkColor(attribute0, flashActive);
-
-                pixelRgbBuffer[offset + SCREEN_WIDTH] =
-                        (videoValue2 & 0x80) == 0 ? extractPaperColor(attribute2, flashActive) :
-                                extractInkColor(attribute2, flashActive);
-                pixelRgbBuffer[++offset] =
-                        (videoValue1 & 0x80) == 0 ? extractPaperColor(attribute1, flashActive) :
-                                extractInkColor(attribute1, flashActive);
-
-                pixelRgbBuffer[offset++ + SCREEN_WIDTH] =
-                        (videoValue3 & 0x80) == 0 ? extractPaperColor(attribute3, flashActive) :
-                                extractInkColor(attribute3, flashActive);
+                pixelIndexBuffer[offset] =
+                        (videoValue0 & 0x80) == 0 ? extractPaperIndex(attribute0, flashActive) :
+                                extractInkIndex(attribute0, flashActive);
+
+                pixelIndexBuffer[offset + SCREEN_WIDTH] =
+                        (videoValue2 & 0x80) == 0 ? extractPaperIndex(attribute2, flashActive) :
+                                extractInkIndex(attribute2, flashActive);
+                pixelIndexBuffer[++offset] =
+                        (videoValue1 & 0x80) == 0 ? extractPaperIndex(attribute1, flashActive) :
+                                extractInkIndex(attribute1, flashActive);
+
+                pixelIndexBuffer[offset++ + SCREEN_WIDTH] =
+                        (videoValue3 & 0x80) == 0 ? extractPaperIndex(attribute3, flashActive) :
+                                extractInkIndex(attribute3, flashActive);
               }
               break;
               case EVEN: {
-                pixelRgbBuffer[offset++] =
-                        (videoValue0 & 0x80) == 0 ? extractPaperColor(attribute0, flashActive) :
-                                extractInkColor(attribute0, flashActive);
-                pixelRgbBuffer[offset++] =
-                        (videoValue1 & 0x80) == 0 ? extractPaperColor(attribute1, flashActive) :
-                                extractInkColor(attribute1, flashActive);
+                pixelIndexBuffer[offset++] =
+                        (videoValue0 & 0x80) == 0 ? extractPaperIndex(attribute0, flashActive) :
+                                extractInkIndex(attribute0, flashActive);
+                pixelIndexBuffer[offset++] =
+                        (videoValue1 & 0x80) == 0 ? extractPaperIndex(attribute1, flashActive) :
+                                extractInkIndex(attribute1, flashActive);
               }
               break;
               case ODD: {
-                pixelRgbBuffer[offset++ + SCREEN_WIDTH] =
-                        (videoValue2 & 0x80) == 0 ? extractPaperColor(attribute2, flashActive) :
-                                extractInkColor(attribute2, flashActive);
-                pixelRgbBuffer[offset++ + SCREEN_WIDTH] =
-                        (videoValue3 & 0x80) == 0 ? extractPaperColor(attribute3, flashActive) :
-                                extractInkColor(attribute3, flashActive);
+                pixelIndexBuffer[offset++ + SCREEN_WIDTH] =
+                        (videoValue2 & 0x80) == 0 ? extractPaperIndex(attribute2, flashActive) :
+                                extractInkIndex(attribute2, flashActive);
+                pixelIndexBuffer[offset++ + SCREEN_WIDTH] =
+                        (videoValue3 & 0x80) == 0 ? extractPaperIndex(attribute3, flashActive) :
+                                extractInkIndex(attribute3, flashActive);
               }
               break;
               default:
@@ -876,6 +943,11 @@ public final class VideoController extends JComponent
     }
   }
 
+  private static int scanByteToScreenOffset(final int scanByte) {
+    final int line = scanByte >> 5;
+    return ((line & 0xC0) << 5) | ((line & 0x07) << 8) | ((line & 0x38) << 2) | (scanByte & 0x1F);
+  }
+
   public static int extractYFromAddress(final int address) {
     return ((address & 0x1800) >> 5) | ((address & 0x700) >> 8) | ((address & 0xE0) >> 2);
   }
@@ -887,34 +959,22 @@ public final class VideoController extends JComponent
     return 0x1800 + off;
   }
 
-  private static int extractInkColor(final int attribute, final boolean flashActive) {
+  private static byte extractInkIndex(final int attribute, final boolean flashActive) {
     final int bright = (attribute & 0x40) == 0 ? 0 : 0x08;
-    final int inkColor = PALETTE_ZXPOLY[(attribute & 0x07) | bright];
-    final int paperColor = PALETTE_ZXPOLY[((attribute >> 3) & 0x07) | bright];
+    final int inkIndex = (attribute & 0x07) | bright;
+    final int paperIndex = ((attribute >> 3) & 0x07) | bright;
     final boolean flash = (attribute & 0x80) != 0;
-
-    final int result;
-
-    if (flash) {
-      if (flashActive) {
-        result = paperColor;
-      } else {
-        result = inkColor;
-      }
-    } else {
-      result = inkColor;
-    }
-    return result;
+    return (byte) (flash && flashActive ? paperIndex : inkIndex);
   }
 
-  private static int extractPaperPaletteColor(final int attribute) {
+  private static byte extractPaperPaletteIndex(final int attribute) {
     final int bright = (attribute & 0x40) == 0 ? 0 : 0x08;
-    return PALETTE_ZXPOLY[((attribute >> 3) & 0x07) | bright];
+    return (byte) (((attribute >> 3) & 0x07) | bright);
   }
 
-  private static int extractInkPaletteColor(final int attribute) {
+  private static byte extractInkPaletteIndex(final int attribute) {
     final int bright = (attribute & 0x40) == 0 ? 0 : 0x08;
-    return PALETTE_ZXPOLY[(attribute & 0x07) | bright];
+    return (byte) ((attribute & 0x07) | bright);
   }
 
   private static int extractInkColorSpec256(final int attribute, final boolean flashActive) {
@@ -937,44 +997,41 @@ public final class VideoController extends JComponent
     return result;
   }
 
-  private static int extractPaperColor(final int attribute, final boolean flashActive) {
+  private static byte extractPaperIndex(final int attribute, final boolean flashActive) {
     final int bright = (attribute & 0x40) == 0 ? 0 : 0x08;
-    final int inkColor = PALETTE_ZXPOLY[(attribute & 0x07) | bright];
-    final int paperColor = PALETTE_ZXPOLY[((attribute >> 3) & 0x07) | bright];
+    final int inkIndex = (attribute & 0x07) | bright;
+    final int paperIndex = ((attribute >> 3) & 0x07) | bright;
     final boolean flash = (attribute & 0x80) != 0;
+    return (byte) (flash && flashActive ? inkIndex : paperIndex);
+  }
 
-    final int result;
-
-    if (flash) {
-      if (flashActive) {
-        result = inkColor;
-      } else {
-        result = paperColor;
-      }
-    } else {
-      result = paperColor;
-    }
-    return result;
+  private static int extractPaperColor(final int attribute, final boolean flashActive) {
+    return PALETTE_ZXPOLY[extractPaperIndex(attribute, flashActive)];
   }
 
   public static void setGfxUpColorsMixed(final int value) {
     gfxUpColorsMixed = value;
+    gfxSettingsVersion++;
   }
 
   public static void setGfxDownColorsMixed(final int value) {
     gfxDownColorsMixed = value;
+    gfxSettingsVersion++;
   }
 
   public static void setGfxBackOverFF(final boolean flag) {
     gfxBackOverFF = flag;
+    gfxSettingsVersion++;
   }
 
   public static void setGfxPaper00InkFF(final boolean flag) {
     gfxPaper00InkFF = flag;
+    gfxSettingsVersion++;
   }
 
   public static void setGfxHideSameInkPaper(final boolean flag) {
     gfxHideSameInkPaper = flag;
+    gfxSettingsVersion++;
   }
 
   private static String decodeVideoModeCode(final int code) {
@@ -1262,14 +1319,47 @@ public final class VideoController extends JComponent
     }
   }
 
-  private void refreshBufferData(final LineRenderMode renderLines, final int videoMode) {
+  private boolean refreshBufferData(final LineRenderMode renderLines, final int videoMode) {
+    final boolean flashActive = this.board.isFlashActive();
+    this.markChangedSource(videoMode, flashActive);
+
+    final ScreenCellTracker tracker = this.screenCellTracker;
+    final int flags = toCellFlags(renderLines);
+    int changedCells = 0;
+    for (int cell = 0; cell < ScreenCellTracker.CELLS; cell++) {
+      final boolean changed = tracker.takeCell(cell, flags);
+      this.changedCells[cell] = changed;
+      if (changed) {
+        changedCells++;
+      }
+    }
+
+    if (changedCells == 0) {
+      return false;
+    }
+    final boolean[] cellMask = changedCells == ScreenCellTracker.CELLS ? null : this.changedCells;
+    this.fillBufferData(renderLines, videoMode, flashActive, cellMask, 0, SCAN_BYTES);
+    return true;
+  }
+
+  private void fillBufferData(
+          final LineRenderMode renderLines,
+          final int videoMode,
+          final boolean flashActive,
+          final boolean[] cellMask,
+          final int fromScanByte,
+          final int toScanByte
+  ) {
     switch (videoMode) {
       case VIDEOMODE_ZX48_CPU0: {
         fillDataBufferForZxSpectrum128Mode(
                 renderLines,
                 this.modules,
-                this.bufferImageRgbData,
-                this.board.isFlashActive()
+                this.bufferIndexData,
+                flashActive,
+                cellMask,
+                fromScanByte,
+                toScanByte
         );
       }
       break;
@@ -1278,47 +1368,295 @@ public final class VideoController extends JComponent
                 renderLines,
                 this.modules,
                 this.bufferImageRgbData,
-                this.board.isFlashActive()
+                flashActive,
+                cellMask,
+                fromScanByte,
+                toScanByte
         );
       }
       break;
       default: {
         fillDataBufferForZxPolyVideoMode(
                 renderLines,
-                this.currentVideoMode,
+                videoMode,
                 this.modules,
-                this.bufferImageRgbData,
-                this.board.isFlashActive()
+                this.bufferIndexData,
+                flashActive,
+                cellMask,
+                fromScanByte,
+                toScanByte
         );
       }
       break;
     }
   }
 
-  public byte[] grabRgb(final byte[] array) {
+  /**
+   * Render screen bytes fetched by ULA since the previous call till the scan position, only
+   * changed cells are rendered. Cells of a character row are taken from tracker when the row is
+   * met first time in the frame, if a cell is changed when its row is partially rendered then it
+   * is rendered till the end of the row and stays marked for the next frame.
+   *
+   * @param toScanByte scan position, number of screen bytes from the frame start in line order
+   */
+  private void renderScanBytes(final int toScanByte) {
+    final int fromScanByte = this.scanPosition;
+    if (toScanByte <= fromScanByte) {
+      return;
+    }
+    final int videoMode = this.currentVideoMode;
+    final boolean flashActive = this.board.isFlashActive();
+    this.markChangedSource(videoMode, flashActive);
+
+    final ScreenCellTracker tracker = this.screenCellTracker;
+    final int flags = toCellFlags(this.scanRenderLines);
+    final int lastRow = (toScanByte - 1) >> 8;
+    boolean changed = false;
+    for (int row = fromScanByte >> 8; row <= lastRow; row++) {
+      final boolean takeRow = row >= this.scanTakenRows;
+      for (int cell = row << 5, rowEnd = cell + 32; cell < rowEnd; cell++) {
+        if (takeRow) {
+          this.scanCells[cell] = tracker.takeCell(cell, flags);
+        } else {
+          this.scanCells[cell] |= tracker.isMarked(cell, flags);
+        }
+        changed |= this.scanCells[cell];
+      }
+    }
+    this.scanTakenRows = Math.max(this.scanTakenRows, lastRow + 1);
+    this.scanPosition = toScanByte;
+
+    if (changed) {
+      this.fillBufferData(this.scanRenderLines, videoMode, flashActive, this.scanCells, fromScanByte, toScanByte);
+      this.scanBufferChanged = true;
+    }
+  }
+
+  private void startScanFrame() {
+    final int partialRow = this.scanPosition >> 8;
+    if (partialRow < this.scanTakenRows) {
+      // the row was not rendered completely, its taken cells must be rendered in the next frame
+      for (int cell = partialRow << 5, rowEnd = cell + 32; cell < rowEnd; cell++) {
+        if (this.scanCells[cell]) {
+          this.screenCellTracker.mark(cell);
+        }
+      }
+    }
+    this.scanPosition = 0;
+    this.scanTakenRows = 0;
+  }
+
+  private int findScanPosition(final int frameTiStates) {
+    final int paperTiStates = frameTiStates - this.timingProfile.tstatesInFramePaperStart;
+    if (paperTiStates <= 0) {
+      return 0;
+    }
+    final int line = paperTiStates / this.timingProfile.ulaLineTime;
+    if (line >= 192) {
+      return SCAN_BYTES;
+    }
+    // ULA fetches screen byte every 4 ti-states
+    final int bytesInLine = Math.min(32, (paperTiStates % this.timingProfile.ulaLineTime + 3) >> 2);
+    return (line << 5) + bytesInLine;
+  }
+
+  /**
+   * Render screen part passed by ULA till the frame ti-state, used in scanline rendering mode to
+   * show memory state before its change. Does nothing if scanline rendering is off.
+   *
+   * @param frameTiStates current ti-state in frame
+   */
+  public void syncScanline(final int frameTiStates) {
+    if (this.scanlineRendering) {
+      final int position = this.findScanPosition(frameTiStates);
+      if (position > this.scanPosition) {
+        lockBuffer();
+        try {
+          this.renderScanBytes(position);
+        } finally {
+          unlockBuffer();
+        }
+      }
+    }
+  }
+
+  public boolean isScanlineRendering() {
+    return this.scanlineRendering;
+  }
+
+  /**
+   * Turn on or off scanline rendering. If on then every screen byte is rendered at the ti-state
+   * when ULA fetches it, so that changes of attributes and border during frame are shown. Turning
+   * on also turns off parallel SPEC256 GFX cores. Must not be called during step.
+   *
+   * @param flag true to turn on
+   * @see Motherboard#setParallelGfxCores(boolean)
+   */
+  public void setScanlineRendering(final boolean flag) {
+    if (flag) {
+      this.board.setParallelGfxCores(false);
+    }
     lockBuffer();
-    byte[] result;
     try {
-      final int[] buffer = this.bufferImageRgbData;
-      final int bufferLen = buffer.length;
-      result = array == null ? new byte[bufferLen * 3] : array;
-      int outIndex = 0;
-      for (final int argb : buffer) {
-        result[outIndex++] = (byte) (argb >> 16);
-        result[outIndex++] = (byte) (argb >> 8);
-        result[outIndex++] = (byte) argb;
+      if (this.scanlineRendering != flag) {
+        this.scanlineRendering = flag;
+        this.scanPosition = 0;
+        this.scanTakenRows = 0;
+        this.scanRenderLines = LineRenderMode.ALL;
+        this.screenCellTracker.markAll();
+        log.info("Scanline rendering: " + flag);
       }
     } finally {
       unlockBuffer();
     }
+  }
+
+  private static int toCellFlags(final LineRenderMode renderLines) {
+    switch (renderLines) {
+      case ALL:
+        return ScreenCellTracker.FLAG_ALL;
+      case EVEN:
+        return ScreenCellTracker.FLAG_EVEN;
+      case ODD:
+        return ScreenCellTracker.FLAG_ODD;
+      default:
+        throw new Error("Unexpected mode");
+    }
+  }
+
+  private void markChangedSource(final int videoMode, final boolean flashActive) {
+    final ScreenCellTracker tracker = this.screenCellTracker;
+
+    boolean sourceChanged = videoMode != this.lastRenderedVideoMode
+            || gfxSettingsVersion != this.lastGfxSettingsVersion;
+    int screenHeapPages = 0;
+    for (int i = 0; i < this.modules.length; i++) {
+      final ZxPolyModule module = this.modules[i];
+      final int screenHeapAddress = module.getHeapOffset()
+              + ((module.read7FFD() & PORTw_ZX128_SCREEN) == 0 ? 0x14000 : 0x1C000);
+      sourceChanged |= screenHeapAddress != this.lastScreenHeapAddress[i];
+      this.lastScreenHeapAddress[i] = screenHeapAddress;
+      screenHeapPages |= 1 << (screenHeapAddress >>> 14);
+    }
+    tracker.setScreenHeapPages(screenHeapPages);
+    this.lastRenderedVideoMode = videoMode;
+    this.lastGfxSettingsVersion = gfxSettingsVersion;
+
+    if (sourceChanged) {
+      tracker.markAll();
+    } else if (flashActive != this.lastFlashActive) {
+      for (int cell = 0; cell < ScreenCellTracker.CELLS; cell++) {
+        for (final ZxPolyModule module : this.modules) {
+          if ((module.readVideo(0x1800 + cell) & 0x80) != 0) {
+            tracker.mark(cell);
+            break;
+          }
+        }
+      }
+    }
+    this.lastFlashActive = flashActive;
+  }
+
+  /**
+   * Convert the last published frame with applied TV filters into planar YUV 4:2:0 (I420) with
+   * BT.601 limited range, chroma is averaged for every 2x2 block.
+   *
+   * @param target buffer to get Y, U and V planes from zero index, must have at least
+   *               SCREEN_WIDTH * SCREEN_HEIGHT * 3 / 2 bytes, its position is not changed
+   */
+  public void grabYuv420(final ByteBuffer target) {
+    final TvFilterChain filterChain = this.tvFilterChain;
+    final FrameExchanger.Frame frame = this.frameExchanger.acquire();
+    try {
+      if (filterChain.isEmpty() && frame.isIndexed()) {
+        indexesToYuv420(frame.getIndexes(), frame.getPalette(), target);
+      } else {
+        filterChain.apply(frame.getArgbImage(), PALETTE_ZXPOLY[this.portFEw & 7],
+                argb -> argbToYuv420(argb, target));
+      }
+    } finally {
+      frame.release();
+    }
+  }
+
+  private static int rgbToY(final int r, final int g, final int b) {
+    return ((66 * r + 129 * g + 25 * b + 128) >> 8) + 16;
+  }
+
+  private static int rgbToU(final int r, final int g, final int b) {
+    return ((-38 * r - 74 * g + 112 * b + 128) >> 8) + 128;
+  }
+
+  private static int rgbToV(final int r, final int g, final int b) {
+    return ((112 * r - 94 * g - 18 * b + 128) >> 8) + 128;
+  }
+
+  private static void indexesToYuv420(final byte[] indexes, final int[] palette, final ByteBuffer target) {
+    final int[] paletteY = new int[palette.length];
+    final int[] paletteU = new int[palette.length];
+    final int[] paletteV = new int[palette.length];
+    for (int i = 0; i < palette.length; i++) {
+      final int r = (palette[i] >> 16) & 0xFF;
+      final int g = (palette[i] >> 8) & 0xFF;
+      final int b = palette[i] & 0xFF;
+      paletteY[i] = rgbToY(r, g, b);
+      paletteU[i] = rgbToU(r, g, b);
+      paletteV[i] = rgbToV(r, g, b);
+    }
 
-    if (this.tvFilterChain != null) {
-      final int argbBorderColor = PALETTE_ZXPOLY[this.portFEw & 7];
-      for (final TvFilter f : this.tvFilterChain.getFilterChain()) {
-        result = f.apply(false, result, argbBorderColor);
+    final int planeU = SCREEN_WIDTH * SCREEN_HEIGHT;
+    final int planeV = planeU + planeU / 4;
+    int chroma = 0;
+    for (int y = 0; y < SCREEN_HEIGHT; y += 2) {
+      final int line = y * SCREEN_WIDTH;
+      for (int x = 0; x < SCREEN_WIDTH; x += 2) {
+        final int offset = line + x;
+        final int i00 = indexes[offset] & 0xFF;
+        final int i01 = indexes[offset + 1] & 0xFF;
+        final int i10 = indexes[offset + SCREEN_WIDTH] & 0xFF;
+        final int i11 = indexes[offset + SCREEN_WIDTH + 1] & 0xFF;
+        target.put(offset, (byte) paletteY[i00]);
+        target.put(offset + 1, (byte) paletteY[i01]);
+        target.put(offset + SCREEN_WIDTH, (byte) paletteY[i10]);
+        target.put(offset + SCREEN_WIDTH + 1, (byte) paletteY[i11]);
+        target.put(planeU + chroma,
+                (byte) ((paletteU[i00] + paletteU[i01] + paletteU[i10] + paletteU[i11] + 2) >> 2));
+        target.put(planeV + chroma,
+                (byte) ((paletteV[i00] + paletteV[i01] + paletteV[i10] + paletteV[i11] + 2) >> 2));
+        chroma++;
+      }
+    }
+  }
+
+  private static void argbToYuv420(final int[] argb, final ByteBuffer target) {
+    final int planeU = SCREEN_WIDTH * SCREEN_HEIGHT;
+    final int planeV = planeU + planeU / 4;
+    int chroma = 0;
+    for (int y = 0; y < SCREEN_HEIGHT; y += 2) {
+      final int line = y * SCREEN_WIDTH;
+      for (int x = 0; x < SCREEN_WIDTH; x += 2) {
+        int sumR = 0;
+        int sumG = 0;
+        int sumB = 0;
+        for (int i = 0; i < 4; i++) {
+          final int offset = line + x + (i & 1) + (i >> 1) * SCREEN_WIDTH;
+          final int color = argb[offset];
+          final int r = (color >> 16) & 0xFF;
+          final int g = (color >> 8) & 0xFF;
+          final int b = color & 0xFF;
+          target.put(offset, (byte) rgbToY(r, g, b));
+          sumR += r;
+          sumG += g;
+          sumB += b;
+        }
+        final int r = (sumR + 2) >> 2;
+        final int g = (sumG + 2) >> 2;
+        final int b = (sumB + 2) >> 2;
+        target.put(planeU + chroma, (byte) rgbToU(r, g, b));
+        target.put(planeV + chroma, (byte) rgbToV(r, g, b));
+        chroma++;
       }
     }
-    return result;
   }
 
   public void drawBuffer(
@@ -1328,62 +1666,59 @@ public final class VideoController extends JComponent
           final float zoom,
           final TvFilterChain filterChain
   ) {
-    if (filterChain.isEmpty()) {
-      lockBuffer();
-      try {
-        final float normalZoom = Math.max(1.0f, zoom);
-        if (normalZoom == 1.0f) {
-          gfx.drawImage(this.bufferImage, null, x, y);
-        } else {
-          gfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-          gfx.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+    final FrameExchanger.Frame frame = this.frameExchanger.acquire();
+    try {
+      this.drawFrame(gfx, frame, x, y, zoom, filterChain);
+    } finally {
+      frame.release();
+    }
+  }
 
-          gfx.drawImage(this.bufferImage, x, y, Math.round(SCREEN_WIDTH * normalZoom),
-                  Math.round(SCREEN_HEIGHT * normalZoom), null);
-        }
-      } finally {
-        unlockBuffer();
+  private void drawFrame(
+          final Graphics2D gfx,
+          final FrameExchanger.Frame frame,
+          final int x,
+          final int y,
+          final float zoom,
+          final TvFilterChain filterChain
+  ) {
+    final int borderArgbColor = filterChain.isEmpty() ? 0
+            : PALETTE_ZXPOLY[this.borderLineColors[this.timingProfile.ulaVisibleRows - 1]];
+    final int integerZoom = IntegerZoomRenderer.findIntegerFactor(zoom);
+    final long frameSequence = frame.getSequence();
+
+    final Rectangle area;
+    if (integerZoom > 0) {
+      BufferedImage zoomedImage =
+              this.integerZoomRenderer.findCached(integerZoom, frameSequence, filterChain, borderArgbColor);
+      if (zoomedImage == null) {
+        final BufferedImage processedImage =
+                filterChain.isEmpty() ? frame.getImage() : filterChain.apply(frame.getArgbImage(), borderArgbColor);
+        zoomedImage = this.integerZoomRenderer
+                .render(processedImage, integerZoom, frameSequence, filterChain, borderArgbColor);
       }
+      area = new Rectangle(x, y, zoomedImage.getWidth(), zoomedImage.getHeight());
+      gfx.drawImage(zoomedImage, null, x, y);
     } else {
-      final int borderArgbColor = PALETTE_ZXPOLY[this.borderLineColors[this.timingProfile.ulaVisibleRows - 1]];
-      final Rectangle area;
-      final TvFilter[] tvFilters = filterChain.getFilterChain();
-      BufferedImage postProcessedImage;
-      lockBuffer();
-      try {
-        postProcessedImage = tvFilters[0].apply(this.bufferImage, zoom, borderArgbColor, true);
-      } finally {
-        unlockBuffer();
-      }
-      for (int i = 1; i < tvFilters.length; i++) {
-        postProcessedImage = tvFilters[i].apply(postProcessedImage, zoom, borderArgbColor, false);
-      }
-      if (zoom == 1.0f) {
-        area = new Rectangle(x, y, 512, 384);
-        gfx.drawImage(postProcessedImage, null, x, y);
+      final BufferedImage processedImage =
+              filterChain.isEmpty() ? frame.getImage() : filterChain.apply(frame.getArgbImage(), borderArgbColor);
+      final float normalizedZoom = Math.max(1.0f, zoom);
+      if (normalizedZoom == 1.0f) {
+        area = new Rectangle(x, y, SCREEN_WIDTH, SCREEN_HEIGHT);
+        gfx.drawImage(processedImage, null, x, y);
       } else {
-        final boolean sizeChangedDuringPostprocessing =
-                postProcessedImage.getWidth() != this.bufferImage.getWidth();
+        gfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        gfx.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
 
-        if (sizeChangedDuringPostprocessing) {
-          gfx.drawImage(postProcessedImage, null, x, y);
-          area = new Rectangle(x, y, 512, 384);
-        } else {
-          final float normalizedZoom = Math.max(1.0f, zoom);
-          gfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-          gfx.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+        area = new Rectangle(x, y, Math.round(SCREEN_WIDTH * normalizedZoom),
+                Math.round(SCREEN_HEIGHT * normalizedZoom));
 
-          area = new Rectangle(x, y, Math.round(SCREEN_WIDTH * normalizedZoom),
-                  Math.round(SCREEN_HEIGHT * normalizedZoom));
-
-          gfx.drawImage(postProcessedImage, x, y, area.width,
-                  area.height, null);
-        }
+        gfx.drawImage(processedImage, x, y, area.width, area.height, null);
       }
+    }
 
-      for (final TvFilter filter : tvFilters) {
-        filter.apply(gfx, area, zoom);
-      }
+    for (final TvFilter filter : filterChain.getFilterChain()) {
+      filter.apply(gfx, area, zoom);
     }
   }
 
@@ -1413,7 +1748,9 @@ public final class VideoController extends JComponent
       if (this.currentVideoMode != newVideoMode) {
         this.currentVideoMode = newVideoMode;
         log.log(Level.INFO, "mode set: " + decodeVideoModeCode(newVideoMode));
-        refreshBufferData(LineRenderMode.ALL, this.currentVideoMode);
+        if (refreshBufferData(LineRenderMode.ALL, this.currentVideoMode)) {
+          this.publishFrame();
+        }
       }
     } finally {
       unlockBuffer();
@@ -1425,6 +1762,21 @@ public final class VideoController extends JComponent
     fill(this.borderLineColors, (byte) colorIndex);
   }
 
+  private static void expandPaletteIndexes(final byte[] indexes, final int[] argb) {
+    for (int i = 0; i < indexes.length; i++) {
+      argb[i] = PALETTE_ZXPOLY[indexes[i]];
+    }
+  }
+
+  private void publishFrame() {
+    // if frame is dropped then it will be published during next update
+    if (this.lastRenderedVideoMode == VIDEOMODE_SPEC256) {
+      this.framePublishPending = !this.frameExchanger.publish(this.bufferImageRgbData);
+    } else {
+      this.framePublishPending = !this.frameExchanger.publish(this.bufferIndexData);
+    }
+  }
+
   public void lockBuffer() {
     bufferLocker.lock();
   }
@@ -1433,10 +1785,31 @@ public final class VideoController extends JComponent
     bufferLocker.unlock();
   }
 
-  public void syncUpdateBuffer(final LineRenderMode renderLines) {
+  /**
+   * Refresh video buffer from video memory, only changed character cells are rendered. Changed
+   * buffer is published for readers without waiting for them.
+   *
+   * @param renderLines lines to be rendered
+   * @return true if buffer has been changed, false if there were no changes
+   */
+  public boolean syncUpdateBuffer(final LineRenderMode renderLines) {
     lockBuffer();
     try {
-      this.refreshBufferData(renderLines, this.currentVideoMode);
+      final boolean changed;
+      if (this.scanlineRendering) {
+        this.renderScanBytes(SCAN_BYTES);
+        changed = this.scanBufferChanged;
+        this.scanBufferChanged = false;
+        // interlaced lines are changed every frame
+        this.scanRenderLines = renderLines == LineRenderMode.EVEN ? LineRenderMode.ODD
+                : renderLines == LineRenderMode.ODD ? LineRenderMode.EVEN : LineRenderMode.ALL;
+      } else {
+        changed = this.refreshBufferData(renderLines, this.currentVideoMode);
+      }
+      if (changed || this.framePublishPending) {
+        this.publishFrame();
+      }
+      return changed;
     } finally {
       unlockBuffer();
     }
@@ -1455,9 +1828,13 @@ public final class VideoController extends JComponent
               LineRenderMode.ALL,
               this.currentVideoMode,
               this.modules,
-              this.bufferImageRgbData,
-              this.board.isFlashActive()
+              this.bufferIndexData,
+              this.board.isFlashActive(),
+              null,
+              0,
+              SCAN_BYTES
       );
+      expandPaletteIndexes(this.bufferIndexData, this.bufferImageRgbData);
       g.drawImage(this.bufferImage, 0, 0, this);
       g.dispose();
       result.add(buffImage);
@@ -1469,9 +1846,13 @@ public final class VideoController extends JComponent
               LineRenderMode.ALL,
               VIDEOMODE_ZX48_CPU0,
               this.modules,
-              this.bufferImageRgbData,
-              this.board.isFlashActive()
+              this.bufferIndexData,
+              this.board.isFlashActive(),
+              null,
+              0,
+              SCAN_BYTES
       );
+      expandPaletteIndexes(this.bufferIndexData, this.bufferImageRgbData);
       g.drawImage(this.bufferImage, 0, 0, this);
       g.dispose();
       result.add(buffImage);
@@ -1483,9 +1864,13 @@ public final class VideoController extends JComponent
               LineRenderMode.ALL,
               VIDEOMODE_ZX48_CPU1,
               this.modules,
-              this.bufferImageRgbData,
-              this.board.isFlashActive()
+              this.bufferIndexData,
+              this.board.isFlashActive(),
+              null,
+              0,
+              SCAN_BYTES
       );
+      expandPaletteIndexes(this.bufferIndexData, this.bufferImageRgbData);
       g.drawImage(this.bufferImage, 0, 0, this);
       g.dispose();
       result.add(buffImage);
@@ -1497,9 +1882,13 @@ public final class VideoController extends JComponent
               LineRenderMode.ALL,
               VIDEOMODE_ZX48_CPU2,
               this.modules,
-              this.bufferImageRgbData,
-              this.board.isFlashActive()
+              this.bufferIndexData,
+              this.board.isFlashActive(),
+              null,
+              0,
+              SCAN_BYTES
       );
+      expandPaletteIndexes(this.bufferIndexData, this.bufferImageRgbData);
       g.drawImage(this.bufferImage, 0, 0, this);
       g.dispose();
       result.add(buffImage);
@@ -1511,42 +1900,68 @@ public final class VideoController extends JComponent
               LineRenderMode.ALL,
               VIDEOMODE_ZX48_CPU3,
               this.modules,
-              this.bufferImageRgbData,
-              this.board.isFlashActive()
+              this.bufferIndexData,
+              this.board.isFlashActive(),
+              null,
+              0,
+              SCAN_BYTES
       );
+      expandPaletteIndexes(this.bufferIndexData, this.bufferImageRgbData);
       g.drawImage(this.bufferImage, 0, 0, this);
       g.dispose();
       result.add(buffImage);
 
       return result.toArray(EMPTY_ARRAY);
     } finally {
+      this.screenCellTracker.markAll();
       refreshBufferData(LineRenderMode.ALL, VIDEOMODE_ZX48_CPU0);
+      this.publishFrame();
       this.unlockBuffer();
     }
   }
 
-  public int[] makeCopyOfVideoBuffer(final boolean applyFilters) {
-    int[] cloneOfBuffer;
-    Color borderColor;
-    this.lockBuffer();
+  public int[] copyVideoBuffer(final int[] target) {
+    final FrameExchanger.Frame frame = this.frameExchanger.acquire();
     try {
-      cloneOfBuffer = this.bufferImageRgbData.clone();
-      borderColor = PALETTE_ZXPOLY_COLORS[this.portFEw & 7];
+      final int[] argb = frame.getArgb();
+      final int[] result = target == null ? new int[argb.length] : target;
+      System.arraycopy(argb, 0, result, 0, argb.length);
+      return result;
     } finally {
-      this.unlockBuffer();
+      frame.release();
     }
+  }
 
-    if (applyFilters) {
-      byte[] rgb = argb2rgb(cloneOfBuffer);
-
-      for (TvFilter f : this.tvFilterChain.getFilterChain()) {
-        rgb = f.apply(false, rgb, borderColor.getRGB());
-        borderColor = f.applyBorderColor(borderColor);
-      }
-
-      cloneOfBuffer = rgb2argb(rgb);
+  public int[] makeCopyOfVideoBuffer(final boolean applyFilters) {
+    final int[] cloneOfBuffer;
+    final FrameExchanger.Frame frame = this.frameExchanger.acquire();
+    try {
+      cloneOfBuffer = frame.getArgb().clone();
+    } finally {
+      frame.release();
+    }
+    return applyFilters ? this.applyFilters(cloneOfBuffer, this.portFEw & 7) : cloneOfBuffer;
+  }
+
+  /**
+   * Apply current TV filters to copy of video buffer. The method doesn't touch emulation state so
+   * that it can be called on another thread for copy made before.
+   *
+   * @param argbCopyOfVideoBuffer copy of video buffer
+   * @param borderColorIndex      index of border color for the moment of copy
+   * @return new array contains filtered image
+   * @see #makeCopyOfVideoBuffer(boolean)
+   */
+  public int[] applyFilters(final int[] argbCopyOfVideoBuffer, final int borderColorIndex) {
+    Color borderColor = PALETTE_ZXPOLY_COLORS[borderColorIndex];
+    byte[] rgb = argb2rgb(argbCopyOfVideoBuffer);
+
+    for (TvFilter f : this.tvFilterChain.getFilterChain()) {
+      rgb = f.apply(false, rgb, borderColor.getRGB());
+      borderColor = f.applyBorderColor(borderColor);
     }
-    return cloneOfBuffer;
+
+    return rgb2argb(rgb);
   }
 
   private byte[] argb2rgb(final int[] argb) {
@@ -1614,6 +2029,16 @@ public final class VideoController extends JComponent
     return NOTIFICATION_PRESTEP | NOTIFICATION_POSTSTEP;
   }
 
+  @Override
+  public boolean isReadPortDecoded(final BoardMode mode, final int port) {
+    return false;
+  }
+
+  @Override
+  public boolean isWritePortDecoded(final BoardMode mode, final int port) {
+    return mode == BoardMode.ZXPOLY ? (port & 0xFF) == 0xFE : (port & 1) == 0;
+  }
+
   @Override
   public void preStep(final int frameTiStates, final boolean signalReset, final boolean tstatesIntReached,
                       boolean wallClockInt) {
@@ -1623,20 +2048,47 @@ public final class VideoController extends JComponent
 
     this.vkbdRender.preState(signalReset, tstatesIntReached, wallClockInt);
 
+    if (this.scanlineRendering) {
+      if (frameTiStates < this.scanFrameTiStates) {
+        this.startScanFrame();
+      }
+      this.scanFrameTiStates = frameTiStates;
+    }
+
+    this.updateBorderLines(frameTiStates);
+  }
+
+  private void updateBorderLines(final int frameTiStates) {
     final int borderLineIndex = frameTiStates / this.timingProfile.ulaLineTime - 28; // 28 is heuristic value found by test aquaplane game
+    final byte color = (byte) (this.portFEw & 0x7);
 
-    if (borderLineIndex >= 0 && borderLineIndex < this.timingProfile.ulaTotalRows) {
-      this.borderLineColors[borderLineIndex] = (byte) (this.portFEw & 0x7);
+    // lines passed since the previous call had the current color, batch execution can pass many lines
+    final int fromIndex = Math.max(0, borderLineIndex < this.lastBorderLineIndex ? 0 : this.lastBorderLineIndex);
+    final int toIndex = Math.min(borderLineIndex + 1, this.timingProfile.ulaTotalRows);
+    if (fromIndex < toIndex) {
+      fill(this.borderLineColors, fromIndex, toIndex, color);
     }
+    this.lastBorderLineIndex = borderLineIndex;
   }
 
   @Override
   public void doReset() {
     this.vkbdRender.doReset();
+    this.screenCellTracker.markAll();
   }
 
   @Override
   public void postStep(final int spentTstates) {
+    final int frameTiStates = this.board.getFrameTiStates();
+    final int frameTact = this.timingProfile.ulaFrameTact;
+    if (frameTiStates - spentTstates < frameTact) {
+      // lines till the last spent ti-state of the frame, ti-states after frame end are met by the next steps
+      this.updateBorderLines(Math.min(frameTiStates, frameTact) - 1);
+    }
+    if (this.scanlineRendering && this.board.isParallelModuleStepping()) {
+      // modules don't sync screen writes during parallel slice
+      this.syncScanline(frameTiStates);
+    }
   }
 
   public float getZoom() {
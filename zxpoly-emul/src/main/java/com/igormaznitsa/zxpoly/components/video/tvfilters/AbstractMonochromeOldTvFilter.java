@@ -3,8 +3,6 @@ package com.igormaznitsa.zxpoly.components.video.tvfilters;
 import com.igormaznitsa.zxpoly.components.video.VideoController;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 
 public abstract class AbstractMonochromeOldTvFilter extends TvFilterOldTv {
 
@@ -46,11 +44,16 @@ public abstract class AbstractMonochromeOldTvFilter extends TvFilterOldTv {
   protected abstract int y2rgb(final int y);
 
   @Override
-  public final BufferedImage apply(BufferedImage srcImageArgb512x384, float zoom, int argbBorderColor, boolean firstInChain) {
-    final BufferedImage result = super.apply(srcImageArgb512x384, zoom, argbBorderColor, firstInChain);
-    final int[] argbBuffer = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
-    for (int i = 0; i < argbBuffer.length; i++) {
-      final int argb = argbBuffer[i];
+  public final void applyRows(
+          final int[] srcArgb,
+          final int[] dstArgb,
+          final int fromRow,
+          final int toRow,
+          final int argbBorderColor
+  ) {
+    super.applyRows(srcArgb, dstArgb, fromRow, toRow, argbBorderColor);
+    for (int i = fromRow * RASTER_WIDTH_ARGB_INT, end = toRow * RASTER_WIDTH_ARGB_INT; i < end; i++) {
+      final int argb = dstArgb[i];
 
       final int a = (argb >>> 24) & 0xFF;
       final int r = (argb >>> 16) & 0xFF;
@@ -59,9 +62,8 @@ public abstract class AbstractMonochromeOldTvFilter extends TvFilterOldTv {
 
       final int rgb = y2rgb(rgb2y(r, g, b));
 
-      argbBuffer[i] = (a << 24) | rgb;
+      dstArgb[i] = (a << 24) | rgb;
     }
-    return result;
   }
 
   @Override
@@ -1,15 +1,8 @@
 package com.igormaznitsa.zxpoly.components.video.tvfilters;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 
 public interface TvFilter {
-  BufferedImage SHARED_BUFFER =
-          new BufferedImage(512, 384, BufferedImage.TYPE_INT_ARGB);
-  int[] SHARED_BUFFER_RASTER =
-          ((DataBufferInt) SHARED_BUFFER.getRaster().getDataBuffer()).getData();
-
   int RASTER_WIDTH_ARGB_INT = 512;
   int RASTER_WIDTH_RGB_BYTE = RASTER_WIDTH_ARGB_INT * 3;
   int RASTER_HEIGHT = 384;
@@ -22,13 +15,39 @@ public interface TvFilter {
     return borderColor;
   }
 
-  default BufferedImage apply(
-          final BufferedImage srcImageArgb512x384,
-          final float zoom,
-          final int argbBorderColor,
-          final boolean firstInChain
+  /**
+   * Get number of neighbour rows of the source needed to make a row of the result. If it is zero
+   * then rows are processed independently and the filter can be made in place.
+   *
+   * @return number of neighbour rows above and below
+   * @see #applyRows(int[], int[], int, int, int)
+   */
+  default int getRowRadius() {
+    return 0;
+  }
+
+  /**
+   * Process rows of ARGB raster 512x384. The method can be called concurrently for different row
+   * ranges. If row radius is zero then source and destination can be the same array, otherwise
+   * the source is not changed and can be read outside the row range.
+   *
+   * @param srcArgb         source raster
+   * @param dstArgb         destination raster
+   * @param fromRow         the first row, inclusive
+   * @param toRow           the last row, exclusive
+   * @param argbBorderColor current border color
+   */
+  default void applyRows(
+          final int[] srcArgb,
+          final int[] dstArgb,
+          final int fromRow,
+          final int toRow,
+          final int argbBorderColor
   ) {
-    return srcImageArgb512x384;
+    if (srcArgb != dstArgb) {
+      System.arraycopy(srcArgb, fromRow * RASTER_WIDTH_ARGB_INT, dstArgb, fromRow * RASTER_WIDTH_ARGB_INT,
+              (toRow - fromRow) * RASTER_WIDTH_ARGB_INT);
+    }
   }
 
   default byte[] apply(
@@ -1,8 +1,6 @@
 package com.igormaznitsa.zxpoly.components.video.tvfilters;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 import java.util.Arrays;
 
 public final class TvFilterBlackWhite implements TvFilter {
@@ -57,27 +55,23 @@ public final class TvFilterBlackWhite implements TvFilter {
   }
 
   @Override
-  public BufferedImage apply(
-      final BufferedImage srcImageArgb512x384,
-      final float zoom,
-      final int argbBorderColor,
-      final boolean firstInChain
+  public void applyRows(
+      final int[] srcArgb,
+      final int[] dstArgb,
+      final int fromRow,
+      final int toRow,
+      final int argbBorderColor
   ) {
-    final int[] src = ((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData();
-    final int[] dst = SHARED_BUFFER_RASTER;
-
-    for (int y = 0; y < RASTER_HEIGHT; y++) {
+    for (int y = fromRow; y < toRow; y++) {
       for (int x = 0; x < RASTER_WIDTH_ARGB_INT; x++) {
         final int pos = y * RASTER_WIDTH_ARGB_INT + x;
-        if (MATRIX[x & 7][y & 7] < getLevel64(src[pos])) {
-          dst[pos] = 0xFFFFFFFF;
+        if (MATRIX[x & 7][y & 7] < getLevel64(srcArgb[pos])) {
+          dstArgb[pos] = 0xFFFFFFFF;
         } else {
-          dst[pos] = 0xFF000000;
+          dstArgb[pos] = 0xFF000000;
         }
       }
     }
-
-    return SHARED_BUFFER;
   }
 
   @Override
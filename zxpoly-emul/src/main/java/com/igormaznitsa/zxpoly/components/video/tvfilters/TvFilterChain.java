@@ -3,6 +3,9 @@ package com.igormaznitsa.zxpoly.components.video.tvfilters;
 import com.igormaznitsa.zxpoly.components.video.VideoController;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.Consumer;
 
 import static java.util.stream.Stream.of;
 
@@ -17,6 +20,7 @@ public enum TvFilterChain {
 
   private final String text;
   private final TvFilter[] filterChain;
+  private volatile TvFilterPipeline pipeline;
 
   TvFilterChain(final String text, final TvFilter[] chain) {
     this.text = text;
@@ -46,6 +50,53 @@ public enum TvFilterChain {
     return of(this.filterChain).allMatch(TvFilter::isGifCompatible);
   }
 
+  /**
+   * Apply the chain to ARGB image 512x384.
+   *
+   * @param srcImageArgb512x384 source image, it is not changed
+   * @param argbBorderColor     current border color
+   * @return filtered image, it is reused between calls
+   */
+  public BufferedImage apply(final BufferedImage srcImageArgb512x384, final int argbBorderColor) {
+    if (this.filterChain.length == 0) {
+      return srcImageArgb512x384;
+    }
+    return this.findPipeline().apply(srcImageArgb512x384, argbBorderColor);
+  }
+
+  /**
+   * Apply the chain to ARGB image 512x384 and pass result raster to consumer.
+   *
+   * @param srcImageArgb512x384 source image, it is not changed
+   * @param argbBorderColor     current border color
+   * @param consumer            consumer of result ARGB raster, the raster must not be changed
+   */
+  public void apply(
+          final BufferedImage srcImageArgb512x384,
+          final int argbBorderColor,
+          final Consumer<int[]> consumer
+  ) {
+    if (this.filterChain.length == 0) {
+      consumer.accept(((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData());
+    } else {
+      this.findPipeline().apply(srcImageArgb512x384, argbBorderColor, consumer);
+    }
+  }
+
+  private TvFilterPipeline findPipeline() {
+    TvFilterPipeline result = this.pipeline;
+    if (result == null) {
+      synchronized (this) {
+        result = this.pipeline;
+        if (result == null) {
+          result = new TvFilterPipeline(this.filterChain);
+          this.pipeline = result;
+        }
+      }
+    }
+    return result;
+  }
+
   public TvFilter[] getFilterChain() {
     return this.filterChain;
   }
@@ -1,7 +1,5 @@
 package com.igormaznitsa.zxpoly.components.video.tvfilters;
 
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 import java.util.Arrays;
 import java.util.stream.IntStream;
 
@@ -13,9 +11,8 @@ public class TvFilterGaussian implements TvFilter {
   private static final int FILTER_WIDTH = 3;
   private static final int CENTER_OFFSET_X = FILTER_WIDTH / 2;
   private static final int CENTER_OFFSET_Y = FILTER.length / FILTER_WIDTH / 2;
-  private static final int PIXEL_INDEX_OFFSET_ARGB_INT = RASTER_WIDTH_ARGB_INT - FILTER_WIDTH;
   private static final int PIXEL_INDEX_OFFSET_RGB_BYTE = RASTER_WIDTH_RGB_BYTE - FILTER_WIDTH * 3;
-  private final int[] blurBuffer = new int[RASTER_WIDTH_ARGB_INT * RASTER_HEIGHT];
+  private static final ThreadLocal<long[]> COLUMN_SUMS = ThreadLocal.withInitial(() -> new long[RASTER_WIDTH_ARGB_INT]);
   private final byte[] blurByteBuffer = new byte[RASTER_WIDTH_ARGB_INT * RASTER_HEIGHT * 3];
 
   private TvFilterGaussian() {
@@ -26,33 +23,51 @@ public class TvFilterGaussian implements TvFilter {
     return INSTANCE;
   }
 
-  private static void blur(
-      final int[] src,
-      final int[] out) {
+  private static long unpackRgb(final int argb) {
+    return ((argb & 0xFF0000L) << 16) | ((argb & 0xFF00L) << 8) | (argb & 0xFFL);
+  }
 
-    for (int h = RASTER_HEIGHT - FILTER.length / FILTER_WIDTH + 1, w =
-         RASTER_WIDTH_ARGB_INT - FILTER_WIDTH + 1, y = 0; y < h; y++) {
-      for (int x = 0; x < w; x++) {
-        int r = 0;
-        int g = 0;
-        int b = 0;
-        for (int f = 0, pixelIndex = y * RASTER_WIDTH_ARGB_INT + x;
-             f < FILTER.length;
-             pixelIndex += PIXEL_INDEX_OFFSET_ARGB_INT) {
-          for (int fx = 0; fx < FILTER_WIDTH; fx++, f++) {
-            final int filterFactor = FILTER[f];
-            final int srcArgb = src[pixelIndex++];
-            r += ((srcArgb >>> 16) & 0xFF) * filterFactor;
-            g += ((srcArgb >>> 8) & 0xFF) * filterFactor;
-            b += (srcArgb & 0xFF) * filterFactor;
-          }
-        }
-        r /= FILTER_SUM;
-        g /= FILTER_SUM;
-        b /= FILTER_SUM;
-        out[x + CENTER_OFFSET_X + (y + CENTER_OFFSET_Y) * RASTER_WIDTH_ARGB_INT] =
-            (r << 16) | (g << 8) | b | 0xFF000000;
+  @Override
+  public int getRowRadius() {
+    return CENTER_OFFSET_Y;
+  }
+
+  /**
+   * Blur made as two passes of separable kernel 1-2-1, vertical pass sums channels of a row into
+   * 16 bit fields of long values and horizontal pass makes the result from them.
+   */
+  @Override
+  public void applyRows(
+      final int[] srcArgb,
+      final int[] dstArgb,
+      final int fromRow,
+      final int toRow,
+      final int argbBorderColor
+  ) {
+    final long[] columnSums = COLUMN_SUMS.get();
+    for (int y = fromRow; y < toRow; y++) {
+      final int offset = y * RASTER_WIDTH_ARGB_INT;
+      if (y == 0 || y == RASTER_HEIGHT - 1) {
+        System.arraycopy(srcArgb, offset, dstArgb, offset, RASTER_WIDTH_ARGB_INT);
+        continue;
+      }
+
+      for (int x = 0, up = offset - RASTER_WIDTH_ARGB_INT, down = offset + RASTER_WIDTH_ARGB_INT;
+           x < RASTER_WIDTH_ARGB_INT; x++) {
+        columnSums[x] = unpackRgb(srcArgb[up + x])
+            + (unpackRgb(srcArgb[offset + x]) << 1)
+            + unpackRgb(srcArgb[down + x]);
       }
+
+      dstArgb[offset] = srcArgb[offset];
+      for (int x = 1; x < RASTER_WIDTH_ARGB_INT - 1; x++) {
+        final long sum = columnSums[x - 1] + (columnSums[x] << 1) + columnSums[x + 1];
+        final int r = (int) (sum >>> 32) / FILTER_SUM;
+        final int g = ((int) (sum >>> 16) & 0xFFFF) / FILTER_SUM;
+        final int b = ((int) sum & 0xFFFF) / FILTER_SUM;
+        dstArgb[offset + x] = (r << 16) | (g << 8) | b | 0xFF000000;
+      }
+      dstArgb[offset + RASTER_WIDTH_ARGB_INT - 1] = srcArgb[offset + RASTER_WIDTH_ARGB_INT - 1];
     }
   }
 
@@ -103,32 +118,4 @@ public class TvFilterGaussian implements TvFilter {
     System.arraycopy(blurByteBuffer, 0, result, 0, blurByteBuffer.length);
     return result;
   }
-
-  @Override
-  public BufferedImage apply(
-      final BufferedImage srcImageArgb512x384,
-      final float zoom,
-      final int argbBorderColor,
-      final boolean firstInChain) {
-
-    final BufferedImage result;
-    final int[] resultRaster;
-
-    if (firstInChain) {
-      result = SHARED_BUFFER;
-      resultRaster = SHARED_BUFFER_RASTER;
-      final int[] srcRaster =
-          ((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData();
-      System.arraycopy(srcRaster, 0, resultRaster, 0, resultRaster.length);
-    } else {
-      result = srcImageArgb512x384;
-      resultRaster = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
-    }
-
-    blur(resultRaster, blurBuffer);
-
-    System.arraycopy(blurBuffer, 0, resultRaster, 0, blurBuffer.length);
-
-    return result;
-  }
 }
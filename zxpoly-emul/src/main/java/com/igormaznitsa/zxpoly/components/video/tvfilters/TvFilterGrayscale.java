@@ -3,8 +3,6 @@ package com.igormaznitsa.zxpoly.components.video.tvfilters;
 import com.igormaznitsa.zxpoly.components.video.VideoController;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 import java.util.Arrays;
 import java.util.stream.Stream;
 
@@ -37,10 +35,16 @@ public final class TvFilterGrayscale implements TvFilter {
     return Math.min(Math.round(r * 0.4047f + g * 0.5913f + b * 0.2537f), 255);
   }
 
-  private static void fastArgbToGrayscale(final int[] src) {
-    int index = src.length;
-    while (--index >= 0) {
-      final int argb = src[index];
+  @Override
+  public void applyRows(
+          final int[] srcArgb,
+          final int[] dstArgb,
+          final int fromRow,
+          final int toRow,
+          final int argbBorderColor
+  ) {
+    for (int index = fromRow * RASTER_WIDTH_ARGB_INT, end = toRow * RASTER_WIDTH_ARGB_INT; index < end; index++) {
+      final int argb = srcArgb[index];
       final int a = (argb >>> 24) & 0xFF;
       final int r = (argb >>> 16) & 0xFF;
       final int g = (argb >>> 8) & 0xFF;
@@ -48,7 +52,7 @@ public final class TvFilterGrayscale implements TvFilter {
 
       final int y = rgb2y(r, g, b);
 
-      SHARED_BUFFER_RASTER[index] = (a << 24) | (y << 16) | (y << 8) | y;
+      dstArgb[index] = (a << 24) | (y << 16) | (y << 8) | y;
     }
   }
 
@@ -85,20 +89,6 @@ public final class TvFilterGrayscale implements TvFilter {
     return GRAYSCALE_BORDER_COLORS[index];
   }
 
-  @Override
-  public BufferedImage apply(
-          final BufferedImage srcImageArgb512x384,
-          float zoom,
-          final int argbBorder,
-          final boolean firstInChain
-  ) {
-    final int[] src = ((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData();
-
-    fastArgbToGrayscale(src);
-
-    return SHARED_BUFFER;
-  }
-
   @Override
   public int[] makePalette() {
     final int[] palette = new int[256];
@@ -1,7 +1,5 @@
 package com.igormaznitsa.zxpoly.components.video.tvfilters;
 
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 import java.util.Arrays;
 
 public class TvFilterOldTv implements TvFilter {
@@ -36,25 +34,13 @@ public class TvFilterOldTv implements TvFilter {
   }
 
   @Override
-  public BufferedImage apply(
-      final BufferedImage srcImageArgb512x384,
-      final float zoom,
-      final int argbBorder,
-      boolean firstInChain
+  public void applyRows(
+      final int[] srcArgb,
+      final int[] dstArgb,
+      final int fromRow,
+      final int toRow,
+      final int argbBorder
   ) {
-    final BufferedImage image;
-    final int[] argbBuffer;
-    if (firstInChain) {
-      image = SHARED_BUFFER;
-      argbBuffer = SHARED_BUFFER_RASTER;
-      System
-          .arraycopy(((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData(), 0,
-              argbBuffer, 0, argbBuffer.length);
-    } else {
-      image = srcImageArgb512x384;
-      argbBuffer = ((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData();
-    }
-
     final int brdrR = (argbBorder >> 16) & 0xFF;
     final int brdrG = (argbBorder >> 8) & 0xFF;
     final int brdrB = argbBorder & 0xFF;
@@ -63,22 +49,19 @@ public class TvFilterOldTv implements TvFilter {
     final int borderU = rgb2u(brdrR, brdrG, brdrB);
     final int borderV = rgb2v(brdrR, brdrG, brdrB);
 
-    final int width = image.getWidth();
-    final int height = image.getHeight();
-
-    for (int y = 0; y < height; y++) {
-      final int offset = y * width;
+    for (int y = fromRow; y < toRow; y++) {
+      final int offset = y * RASTER_WIDTH_ARGB_INT;
       int pu = borderU;
       int pv = borderV;
       int py = borderY;
 
       final boolean yodd = (y & 1) != 0;
 
-      for (int x = 0; x < width; x++) {
+      for (int x = 0; x < RASTER_WIDTH_ARGB_INT; x++) {
         final boolean xodd = (x & 1) != 0;
 
         final int pos = offset + x;
-        final int argb = argbBuffer[pos];
+        final int argb = srcArgb[pos];
         final int r = (argb >>> 16) & 0xFF;
         final int g = (argb >>> 8) & 0xFF;
         final int b = argb & 0xFF;
@@ -103,11 +86,9 @@ public class TvFilterOldTv implements TvFilter {
         pv = (pv + vc * 2) / 3;
         py = yc;
 
-        argbBuffer[pos] = resultRgb | (argb & 0xFF000000);
+        dstArgb[pos] = resultRgb | (argb & 0xFF000000);
       }
     }
-
-    return image;
   }
 
   @Override
@@ -0,0 +1,96 @@
+package com.igormaznitsa.zxpoly.components.video.tvfilters;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter.RASTER_HEIGHT;
+import static com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter.RASTER_WIDTH_ARGB_INT;
+
+/**
+ * Applies chain of filters to ARGB raster by horizontal strips processed in parallel on common
+ * fork-join pool. Consecutive filters which process rows independently are fused into one stage,
+ * every strip of a stage goes through all its filters while it is in cache. A filter which needs
+ * neighbour rows starts new stage, stages are separated by barrier and use two own buffers in turn.
+ */
+final class TvFilterPipeline {
+
+  private static final int STRIP_ROWS = 32;
+  private static final int STRIPS = (RASTER_HEIGHT + STRIP_ROWS - 1) / STRIP_ROWS;
+
+  private final TvFilter[][] stages;
+  private final BufferedImage[] images = new BufferedImage[2];
+  private final int[][] rasters = new int[2][];
+
+  TvFilterPipeline(final TvFilter[] filters) {
+    final List<TvFilter[]> stageList = new ArrayList<>();
+    int stageStart = 0;
+    for (int i = 1; i <= filters.length; i++) {
+      if (i == filters.length || filters[i].getRowRadius() > 0) {
+        final TvFilter[] stage = new TvFilter[i - stageStart];
+        System.arraycopy(filters, stageStart, stage, 0, stage.length);
+        stageList.add(stage);
+        stageStart = i;
+      }
+    }
+    this.stages = stageList.toArray(new TvFilter[0][]);
+  }
+
+  private void ensureBuffers() {
+    if (this.images[0] == null) {
+      for (int i = 0; i < 2; i++) {
+        this.images[i] = new BufferedImage(RASTER_WIDTH_ARGB_INT, RASTER_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        this.rasters[i] = ((DataBufferInt) this.images[i].getRaster().getDataBuffer()).getData();
+      }
+    }
+  }
+
+  /**
+   * Apply filters to image, the source image is not changed.
+   *
+   * @param srcImageArgb512x384 source image
+   * @param argbBorderColor     current border color
+   * @return image contains result, it is reused by next calls
+   */
+  synchronized BufferedImage apply(final BufferedImage srcImageArgb512x384, final int argbBorderColor) {
+    this.ensureBuffers();
+
+    int[] src = ((DataBufferInt) srcImageArgb512x384.getRaster().getDataBuffer()).getData();
+    int target = 0;
+    for (final TvFilter[] stage : this.stages) {
+      final int[] stageSrc = src;
+      final int[] stageDst = this.rasters[target];
+      IntStream.range(0, STRIPS).parallel().forEach(strip -> {
+        final int fromRow = strip * STRIP_ROWS;
+        final int toRow = Math.min(RASTER_HEIGHT, fromRow + STRIP_ROWS);
+        stage[0].applyRows(stageSrc, stageDst, fromRow, toRow, argbBorderColor);
+        for (int i = 1; i < stage.length; i++) {
+          stage[i].applyRows(stageDst, stageDst, fromRow, toRow, argbBorderColor);
+        }
+      });
+      src = stageDst;
+      target ^= 1;
+    }
+    return this.images[target ^ 1];
+  }
+
+  /**
+   * Apply filters to image and pass result raster to consumer, the raster is not reused by other
+   * calls till the consumer is completed.
+   *
+   * @param srcImageArgb512x384 source image
+   * @param argbBorderColor     current border color
+   * @param consumer            consumer of ARGB raster 512x384
+   */
+  synchronized void apply(
+          final BufferedImage srcImageArgb512x384,
+          final int argbBorderColor,
+          final Consumer<int[]> consumer
+  ) {
+    final BufferedImage result = this.apply(srcImageArgb512x384, argbBorderColor);
+    consumer.accept(((DataBufferInt) result.getRaster().getDataBuffer()).getData());
+  }
+}
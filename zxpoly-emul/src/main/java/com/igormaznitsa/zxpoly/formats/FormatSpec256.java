@@ -131,6 +131,7 @@ public class FormatSpec256 extends Snapshot {
     final BoardMode mode = board.getBoardMode();
 
     if (mode == BoardMode.SPEC256) {
+      board.syncGfxCores();
       return IntStream.range(0, 8)
               .mapToObj(x -> board.getModules()[0].getGfxRamPage(x))
               .collect(Collectors.toMap(Spec256Arch.Spec256GfxPage::getPageIndex, Function.identity()));
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.headless;
+
+import com.igormaznitsa.zxpoly.components.BoardMode;
+import com.igormaznitsa.zxpoly.components.IoDevice;
+import com.igormaznitsa.zxpoly.components.KeyboardKempstonAndTapeIn;
+import com.igormaznitsa.zxpoly.components.Motherboard;
+import com.igormaznitsa.zxpoly.components.RomData;
+import com.igormaznitsa.zxpoly.components.snd.Beeper;
+import com.igormaznitsa.zxpoly.components.tapereader.TapeSource;
+import com.igormaznitsa.zxpoly.components.tapereader.TapeSourceFactory;
+import com.igormaznitsa.zxpoly.components.video.VideoController;
+import com.igormaznitsa.zxpoly.components.video.VirtualKeyboardLook;
+import com.igormaznitsa.zxpoly.components.video.timings.TimingProfile;
+import com.igormaznitsa.zxpoly.formats.FormatSNA;
+import com.igormaznitsa.zxpoly.formats.FormatSpec256;
+import com.igormaznitsa.zxpoly.formats.FormatZ80;
+import com.igormaznitsa.zxpoly.formats.FormatZXP;
+import com.igormaznitsa.zxpoly.formats.Snapshot;
+import com.igormaznitsa.zxpoly.utils.AppOptions;
+import com.igormaznitsa.zxpoly.utils.Utils;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Emulation engine without UI and wall clock. It builds a board, runs whole frames as fast as
+ * possible on the calling thread and provides rendered frames and mixed sound through listeners.
+ * The video controller is never added to a visible container so the engine works under
+ * {@code java.awt.headless=true}.
+ */
+public final class HeadlessEmulator {
+
+  private static final Logger LOGGER = Logger.getLogger("Headless");
+
+  private final TimingProfile timingProfile;
+  private final Motherboard board;
+  private final VideoController videoController;
+  private FrameListener frameListener;
+  private int[] frameBuffer;
+  private long frameCounter;
+
+  public HeadlessEmulator(
+          final TimingProfile timingProfile,
+          final RomData rom,
+          final BoardMode boardMode,
+          final boolean contendedRam
+  ) throws IOException {
+    this.timingProfile = Objects.requireNonNull(timingProfile);
+    this.board = new Motherboard(
+            timingProfile,
+            Objects.requireNonNull(rom),
+            Objects.requireNonNull(boardMode),
+            contendedRam,
+            false,
+            false,
+            false,
+            false,
+            VirtualKeyboardLook.DEFAULT.load()
+    );
+    this.videoController = this.board.getVideoController();
+    this.board.findIoDevices().forEach(IoDevice::init);
+    this.board.reset();
+    // process pending system reset, so that snapshot loaded just after start is not overwritten
+    this.executeFrame();
+  }
+
+  public static RomData loadRom(final String romPath) throws IOException {
+    if (romPath == null) {
+      try (final InputStream in = Utils.findResourceOrError("com/igormaznitsa/zxpoly/rom/" + AppOptions.TEST_ROM)) {
+        return RomData.read(AppOptions.TEST_ROM, in);
+      }
+    } else {
+      return RomData.read(new File(romPath));
+    }
+  }
+
+  public static Snapshot findSnapshotFormat(final File file) {
+    final Snapshot[] formats = new Snapshot[] {new FormatZ80(), new FormatSNA(), new FormatZXP(), new FormatSpec256()};
+    for (final Snapshot format : formats) {
+      if (format.accept(file)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported snapshot format: " + file.getName());
+  }
+
+  public void loadSnapshot(final File file) throws IOException {
+    final Snapshot format = findSnapshotFormat(file);
+    LOGGER.info("Loading snapshot " + file + " as " + format.getName());
+    this.board.forceResetAllCpu();
+    this.board.resetIoDevices();
+    format.loadFromArray(file, this.board, this.videoController, FileUtils.readFileToByteArray(file));
+  }
+
+  /**
+   * Insert tape (TAP or WAV) and start its play.
+   *
+   * @param file tape file
+   * @throws IOException if the tape can't be read
+   */
+  public void loadTape(final File file) throws IOException {
+    final TapeSource source = TapeSourceFactory.makeSource(this.timingProfile, file);
+    LOGGER.info("Loaded tape " + file + ", total data size " + source.size() + " bytes");
+    this.board.findIoDevice(KeyboardKempstonAndTapeIn.class).setTap(source);
+    source.startPlay();
+  }
+
+  public Motherboard getMotherboard() {
+    return this.board;
+  }
+
+  public VideoController getVideoController() {
+    return this.videoController;
+  }
+
+  public TimingProfile getTimingProfile() {
+    return this.timingProfile;
+  }
+
+  public long getFrameCounter() {
+    return this.frameCounter;
+  }
+
+  /**
+   * Set listener to get rendered frames, if null then video buffer is not rendered at all.
+   *
+   * @param listener listener or null
+   */
+  public void setFrameListener(final FrameListener listener) {
+    this.frameListener = listener;
+  }
+
+  /**
+   * Set listener to get mixed sound, if null then sound is not mixed.
+   *
+   * @param listener listener or null
+   */
+  public void setSoundListener(final Beeper.SoundDataListener listener) {
+    this.board.getBeeper().setSoundDataListener(listener);
+  }
+
+  /**
+   * Execute one INT frame of emulation.
+   */
+  public void runFrame() {
+    this.executeFrame();
+    this.frameCounter++;
+
+    final FrameListener listener = this.frameListener;
+    if (listener != null) {
+      this.videoController.syncUpdateBuffer(VideoController.LineRenderMode.ALL);
+      this.videoController.blinkBorder();
+      this.frameBuffer = this.videoController.copyVideoBuffer(this.frameBuffer);
+      listener.onFrame(this.frameCounter, this.frameBuffer);
+    }
+  }
+
+  /**
+   * Execute number of INT frames of emulation.
+   *
+   * @param frames number of frames, must not be negative
+   */
+  public void runFrames(final long frames) {
+    if (frames < 0) {
+      throw new IllegalArgumentException("Negative number of frames: " + frames);
+    }
+    for (long i = 0; i < frames && !Thread.currentThread().isInterrupted(); i++) {
+      this.runFrame();
+    }
+  }
+
+  private void executeFrame() {
+    final int frameTact = this.timingProfile.ulaFrameTact;
+    this.board.step(true, true, true, true);
+    while (this.board.getFrameTiStates() < frameTact) {
+      this.board.step(false, false, false, true);
+    }
+  }
+
+  public void dispose() {
+    this.board.dispose();
+  }
+
+  @FunctionalInterface
+  public interface FrameListener {
+    /**
+     * Called on the emulation thread after every completed frame.
+     *
+     * @param frameIndex index of the frame since the emulator start, the first one is 1
+     * @param argbPixels ARGB buffer of the rendered screen, reused between calls so it must be copied if kept
+     */
+    void onFrame(long frameIndex, int[] argbPixels);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.igormaznitsa.zxpoly.headless;
+
+import com.igormaznitsa.jbbp.io.JBBPByteOrder;
+import com.igormaznitsa.jbbp.io.JBBPOut;
+import com.igormaznitsa.zxpoly.components.snd.Beeper;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import static com.igormaznitsa.jbbp.io.JBBPOut.BeginBin;
+
+/**
+ * Streaming writer of mixed sound into WAV file. Data are written as they come, sizes in the
+ * header are updated when the writer is closed.
+ */
+public final class WavSoundWriter implements Beeper.SoundDataListener, Closeable {
+
+  private static final long MAX_DATA_SIZE = 0xFFFFFFFFL - 36L;
+
+  private final AudioFormat format;
+  private final FileOutputStream fileStream;
+  private final OutputStream outputStream;
+  private long dataSize;
+  private IOException error;
+
+  public WavSoundWriter(final File file, final AudioFormat format) throws IOException {
+    if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || format.isBigEndian()) {
+      throw new IllegalArgumentException("Only little endian signed PCM is supported: " + format);
+    }
+    this.format = format;
+    this.fileStream = new FileOutputStream(file);
+    this.outputStream = new BufferedOutputStream(this.fileStream, 0x10000);
+    this.outputStream.write(this.makeHeader(0L));
+  }
+
+  private byte[] makeHeader(final long dataSize) throws IOException {
+    final int channels = this.format.getChannels();
+    final int sampleRate = Math.round(this.format.getSampleRate());
+    final int frameSize = this.format.getFrameSize();
+    final int size = (int) Math.min(dataSize, MAX_DATA_SIZE);
+
+    final JBBPOut out = BeginBin(JBBPByteOrder.LITTLE_ENDIAN);
+    return out.
+            Byte("RIFF").
+            Int(size + 36).
+            Byte("WAVE").
+            Byte("fmt ").
+            Int(16). // Size
+            Short(1). // Audio format
+            Short(channels). // Num channels
+            Int(sampleRate). // Sample rate
+            Int(sampleRate * frameSize). // Byte rate
+            Short(frameSize). // Block align
+            Short(this.format.getSampleSizeInBits()). // Bits per sample
+            Byte("data").
+            Int(size).End().toByteArray();
+  }
+
+  @Override
+  public void onSoundData(final byte[] data, final int length) {
+    if (this.error == null) {
+      try {
+        this.outputStream.write(data, 0, length);
+        this.dataSize += length;
+      } catch (IOException ex) {
+        this.error = ex;
+      }
+    }
+  }
+
+  /**
+   * Get length of written sound.
+   *
+   * @return length in seconds
+   */
+  public double getDurationSeconds() {
+    return this.dataSize / (double) this.format.getFrameSize() / this.format.getFrameRate();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.outputStream.flush();
+      if (this.error == null) {
+        this.fileStream.getChannel().write(ByteBuffer.wrap(this.makeHeader(this.dataSize)), 0L);
+      }
+    } finally {
+      this.outputStream.close();
+    }
+    if (this.error != null) {
+      throw this.error;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.igormaznitsa.zxpoly.streamer;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -112,7 +113,7 @@ public abstract class AbstractTcpSingleThreadServer {
     try {
       final ServerSocket serverSocket;
       try {
-        serverSocket = new ServerSocket(this.port, 1, this.address);
+        serverSocket = this.makeServerSocket(this.address, this.port);
         this.serverSocket.set(serverSocket);
         this.listeners.forEach(x -> x.onEstablishing(this, serverSocket, null));
       } catch (Exception ex) {
@@ -152,5 +153,17 @@ public abstract class AbstractTcpSingleThreadServer {
     }
   }
 
+  /**
+   * Make server socket for single connection.
+   *
+   * @param address address to bind
+   * @param port    port to bind, zero for any free port
+   * @return bound server socket
+   * @throws IOException if socket can't be made
+   */
+  protected ServerSocket makeServerSocket(final InetAddress address, final int port) throws IOException {
+    return new ServerSocket(port, 1, address);
+  }
+
   protected abstract void doBusiness(Socket socket) throws Exception;
 }
@@ -8,6 +8,8 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import static com.igormaznitsa.zxpoly.components.snd.Beeper.AUDIO_FORMAT;
+import static com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter.RASTER_HEIGHT;
+import static com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter.RASTER_WIDTH_ARGB_INT;
 
 public class FfmpegWrapper {
 
@@ -21,6 +23,10 @@ public class FfmpegWrapper {
 
   public static final Logger LOGGER = Logger.getLogger("VideoStreamer");
 
+  public static final int FRAME_WIDTH = RASTER_WIDTH_ARGB_INT;
+  public static final int FRAME_HEIGHT = RASTER_HEIGHT;
+  public static final int FRAME_SIZE_YUV420 = FRAME_WIDTH * FRAME_HEIGHT * 3 / 2;
+
 
   public FfmpegWrapper(
           final String ffmpegPath,
@@ -79,9 +85,9 @@ public class FfmpegWrapper {
     args.add("-re");
 
     args.add("-video_size");
-    args.add("512X384");
+    args.add(FRAME_WIDTH + "X" + FRAME_HEIGHT);
     args.add("-pixel_format");
-    args.add("rgb24");
+    args.add("yuv420p");
 
     args.add("-i");
     args.add(this.srcVideo);
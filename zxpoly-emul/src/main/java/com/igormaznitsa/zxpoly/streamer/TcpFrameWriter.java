@@ -0,0 +1,71 @@
+package com.igormaznitsa.zxpoly.streamer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writer of video frames into socket. Frames are made on the writer thread by the frame source
+ * directly in own direct buffer which is written into socket channel, so that the requesting
+ * thread is never blocked by frame conversion and socket. Requests which come while a frame is
+ * being made or written are merged.
+ */
+public class TcpFrameWriter extends AbstractTcpSingleThreadServer {
+
+  private final ByteBuffer frameBuffer;
+  private final Consumer<ByteBuffer> frameSource;
+  private final Semaphore frameRequests = new Semaphore(0);
+
+  public TcpFrameWriter(
+          final String id,
+          final InetAddress address,
+          final int port,
+          final int frameSize,
+          final Consumer<ByteBuffer> frameSource
+  ) {
+    super(id, 1, address, port);
+    this.frameBuffer = ByteBuffer.allocateDirect(frameSize);
+    this.frameSource = frameSource;
+  }
+
+  /**
+   * Request writing of the current frame, the method doesn't wait for the frame.
+   */
+  public void requestFrame() {
+    if (this.frameRequests.availablePermits() == 0) {
+      this.frameRequests.release();
+    }
+  }
+
+  @Override
+  protected ServerSocket makeServerSocket(final InetAddress address, final int port) throws IOException {
+    // socket accepted by channel based server socket has channel to write direct buffers
+    final ServerSocketChannel channel = ServerSocketChannel.open();
+    channel.bind(new InetSocketAddress(address, port), 1);
+    return channel.socket();
+  }
+
+  @Override
+  protected void doBusiness(final Socket socket) throws Exception {
+    final SocketChannel channel = socket.getChannel();
+    final ByteBuffer buffer = this.frameBuffer;
+    while (!this.isStopped() && !Thread.currentThread().isInterrupted()) {
+      if (this.frameRequests.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+        this.frameRequests.drainPermits();
+        buffer.clear();
+        this.frameSource.accept(buffer);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    }
+  }
+}
@@ -13,9 +13,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
-import static com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter.RASTER_HEIGHT;
-import static com.igormaznitsa.zxpoly.components.video.tvfilters.TvFilter.RASTER_WIDTH_ARGB_INT;
-
 public final class ZxVideoStreamer {
   public static final Logger LOGGER = Logger.getLogger("VideoStreamer");
 
@@ -24,7 +21,7 @@ public final class ZxVideoStreamer {
   private final AtomicBoolean started = new AtomicBoolean();
   private final Consumer<ZxVideoStreamer> endWorkConsumer;
   private final Timer wallClock = new Timer(Duration.ofMillis(20));
-  private volatile TcpWriter videoWriter;
+  private volatile TcpFrameWriter videoWriter;
   private volatile TcpWriter soundWriter;
   private volatile FfmpegWrapper ffmpegWrapper;
   private volatile ZxStreamingSoundPort soudPort;
@@ -83,7 +80,8 @@ public final class ZxVideoStreamer {
       final String ffmpegPath,
       final int frameRate) {
     this.videoWriter =
-        new TcpWriter("tcp-video-writer", 2, InetAddress.getLoopbackAddress(), 0);
+        new TcpFrameWriter("tcp-video-writer", InetAddress.getLoopbackAddress(), 0,
+            FfmpegWrapper.FRAME_SIZE_YUV420, this.videoController::grabYuv420);
 
     this.delayBetweenFrameGrab = Duration.ofMillis((1000L + frameRate / 2) / frameRate);
     this.wallClock.next(this.delayBetweenFrameGrab);
@@ -227,13 +225,11 @@ public final class ZxVideoStreamer {
     }
   }
 
-  private final byte[] rgbArray = new byte[RASTER_WIDTH_ARGB_INT * RASTER_HEIGHT * 3];
-
   public void onWallclockInt() {
     if (this.internalEntitiesStarted) {
       if (this.wallClock.completed()) {
         this.wallClock.next(this.delayBetweenFrameGrab);
-        this.videoWriter.write(this.videoController.grabRgb(this.rgbArray));
+        this.videoWriter.requestFrame();
         this.wallClock.next();
       }
     }
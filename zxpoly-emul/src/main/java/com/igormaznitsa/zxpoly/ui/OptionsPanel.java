@@ -56,11 +56,19 @@ public class OptionsPanel extends JPanel {
   private JLabel labelCustomRomPath;
   private JLabel labelMacroCursorKeys;
   private JLabel labelContendedRam;
+  private JLabel labelParallelModules;
+  private JLabel labelSoundDrivenClock;
+  private JLabel labelScanlineRendering;
+  private JLabel labelParallelGfxCores;
   private JCheckBox checkGrabSound;
   private JCheckBox checkInterlacedScan;
   private JCheckBox checkSoundSchemeACB;
   private JCheckBox checkVkbdApart;
   private JCheckBox checkContendedRam;
+  private JCheckBox checkParallelModules;
+  private JCheckBox checkSoundDrivenClock;
+  private JCheckBox checkScanlineRendering;
+  private JCheckBox checkParallelGfxCores;
   private JCheckBox checkAutoiCsForCursorKeys;
   private JComboBox<String> comboNetAdddr;
   private JComboBox<String> comboRomSource;
@@ -133,6 +141,10 @@ public class OptionsPanel extends JPanel {
 
   private void fillByDataContainer(final DataContainer data) {
     this.checkContendedRam.setSelected(data.contendedRam);
+    this.checkParallelModules.setSelected(data.parallelModules);
+    this.checkSoundDrivenClock.setSelected(data.soundDrivenClock);
+    this.checkScanlineRendering.setSelected(data.scanlineRendering);
+    this.checkParallelGfxCores.setSelected(data.parallelGfxCores);
     this.checkInterlacedScan.setSelected(data.interlacedScan);
     this.checkOldTvFilter.setSelected(data.oldTvFilter);
     this.textCustomRomPath.setText(data.customRomPath);
@@ -172,6 +184,10 @@ public class OptionsPanel extends JPanel {
     labelInterlacedScan = new JLabel();
     labelOldTvFilter = new JLabel();
     labelContendedRam = new JLabel();
+    labelParallelModules = new JLabel();
+    labelSoundDrivenClock = new JLabel();
+    labelScanlineRendering = new JLabel();
+    labelParallelGfxCores = new JLabel();
     checkInterlacedScan = new JCheckBox();
     labelFfMpegPath = new JLabel();
     labelNetInterface = new JLabel();
@@ -205,6 +221,10 @@ public class OptionsPanel extends JPanel {
     checkAutoiCsForCursorKeys = new JCheckBox();
     checkOldTvFilter = new JCheckBox();
     checkContendedRam = new JCheckBox();
+    checkParallelModules = new JCheckBox();
+    checkSoundDrivenClock = new JCheckBox();
+    checkScanlineRendering = new JCheckBox();
+    checkParallelGfxCores = new JCheckBox();
     checkVkbdApart = new JCheckBox();
     comboKeyboardLook = new JComboBox<>(VirtualKeyboardLook.values());
     textCustomRomPath = new JTextField();
@@ -511,6 +531,62 @@ public class OptionsPanel extends JPanel {
     gridBagConstraints.anchor = GridBagConstraints.WEST;
     panelGenmeral.add(checkContendedRam, gridBagConstraints);
 
+    labelParallelModules.setHorizontalAlignment(RIGHT);
+    labelParallelModules.setText("ZX-Poly modules on threads:");
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 0;
+    gridBagConstraints.gridy = 14;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    panelGenmeral.add(labelParallelModules, gridBagConstraints);
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 1;
+    gridBagConstraints.gridy = 14;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    gridBagConstraints.anchor = GridBagConstraints.WEST;
+    panelGenmeral.add(checkParallelModules, gridBagConstraints);
+
+    labelSoundDrivenClock.setHorizontalAlignment(RIGHT);
+    labelSoundDrivenClock.setText("Sync emulation to sound card:");
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 0;
+    gridBagConstraints.gridy = 15;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    panelGenmeral.add(labelSoundDrivenClock, gridBagConstraints);
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 1;
+    gridBagConstraints.gridy = 15;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    gridBagConstraints.anchor = GridBagConstraints.WEST;
+    panelGenmeral.add(checkSoundDrivenClock, gridBagConstraints);
+
+    labelScanlineRendering.setHorizontalAlignment(RIGHT);
+    labelScanlineRendering.setText("Render screen by scanlines:");
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 0;
+    gridBagConstraints.gridy = 16;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    panelGenmeral.add(labelScanlineRendering, gridBagConstraints);
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 1;
+    gridBagConstraints.gridy = 16;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    gridBagConstraints.anchor = GridBagConstraints.WEST;
+    panelGenmeral.add(checkScanlineRendering, gridBagConstraints);
+
+    labelParallelGfxCores.setHorizontalAlignment(RIGHT);
+    labelParallelGfxCores.setText("SPEC256 GFX cores on threads:");
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 0;
+    gridBagConstraints.gridy = 17;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    panelGenmeral.add(labelParallelGfxCores, gridBagConstraints);
+    gridBagConstraints = new GridBagConstraints();
+    gridBagConstraints.gridx = 1;
+    gridBagConstraints.gridy = 17;
+    gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+    gridBagConstraints.anchor = GridBagConstraints.WEST;
+    panelGenmeral.add(checkParallelGfxCores, gridBagConstraints);
+
     gridBagConstraints = new GridBagConstraints();
     gridBagConstraints.gridx = 0;
     gridBagConstraints.gridy = 1;
@@ -664,6 +740,10 @@ public class OptionsPanel extends JPanel {
     public final boolean interlacedScan;
     public final boolean oldTvFilter;
     public final boolean contendedRam;
+    public final boolean parallelModules;
+    public final boolean soundDrivenClock;
+    public final boolean scanlineRendering;
+    public final boolean parallelGfxCores;
 
     public final int kempstonKeyUp;
     public final int kempstonKeyDown;
@@ -682,6 +762,10 @@ public class OptionsPanel extends JPanel {
     public DataContainer() {
       final String customRomPath = AppOptions.getInstance().getCustomRomPath();
       this.contendedRam = AppOptions.getInstance().isContendedRam();
+      this.parallelModules = AppOptions.getInstance().isParallelModules();
+      this.soundDrivenClock = AppOptions.getInstance().isSoundDrivenClock();
+      this.scanlineRendering = AppOptions.getInstance().isScanlineRendering();
+      this.parallelGfxCores = AppOptions.getInstance().isParallelGfxCores();
       this.customRomPath = customRomPath == null ? "" : customRomPath;
       this.interlacedScan = AppOptions.getInstance().isInterlacedScan();
       this.oldTvFilter = AppOptions.getInstance().isOldColorTvOnStart();
@@ -724,6 +808,10 @@ public class OptionsPanel extends JPanel {
       this.oldTvFilter = optionsPanel.checkOldTvFilter.isSelected();
 
       this.contendedRam = optionsPanel.checkContendedRam.isSelected();
+      this.parallelModules = optionsPanel.checkParallelModules.isSelected();
+      this.soundDrivenClock = optionsPanel.checkSoundDrivenClock.isSelected();
+      this.scanlineRendering = optionsPanel.checkScanlineRendering.isSelected();
+      this.parallelGfxCores = optionsPanel.checkParallelGfxCores.isSelected();
       this.autoCsForCursorKeys = optionsPanel.checkAutoiCsForCursorKeys.isSelected();
       this.vkdApart = optionsPanel.checkVkbdApart.isSelected();
       this.activeRom = rom.getLink();
@@ -754,6 +842,10 @@ public class OptionsPanel extends JPanel {
 
     public void store() {
       AppOptions.getInstance().setContendedRam(this.contendedRam);
+      AppOptions.getInstance().setParallelModules(this.parallelModules);
+      AppOptions.getInstance().setSoundDrivenClock(this.soundDrivenClock);
+      AppOptions.getInstance().setScanlineRendering(this.scanlineRendering);
+      AppOptions.getInstance().setParallelGfxCores(this.parallelGfxCores);
       AppOptions.getInstance().setInterlacedScan(this.interlacedScan);
       AppOptions.getInstance().setOldColorTvOnStart(this.oldTvFilter);
       AppOptions.getInstance().setAutoCsForCursorKeys(this.autoCsForCursorKeys);
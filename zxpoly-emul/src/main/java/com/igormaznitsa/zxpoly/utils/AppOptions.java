@@ -127,6 +127,38 @@ public final class AppOptions {
     preferences.putBoolean(Option.TURBOSOUND.name(), value);
   }
 
+  public synchronized boolean isParallelModules() {
+    return preferences.getBoolean(Option.PARALLEL_MODULES.name(), false);
+  }
+
+  public synchronized void setParallelModules(final boolean value) {
+    preferences.putBoolean(Option.PARALLEL_MODULES.name(), value);
+  }
+
+  public synchronized boolean isSoundDrivenClock() {
+    return preferences.getBoolean(Option.SOUND_DRIVEN_CLOCK.name(), false);
+  }
+
+  public synchronized void setSoundDrivenClock(final boolean value) {
+    preferences.putBoolean(Option.SOUND_DRIVEN_CLOCK.name(), value);
+  }
+
+  public synchronized boolean isScanlineRendering() {
+    return preferences.getBoolean(Option.SCANLINE_RENDERING.name(), false);
+  }
+
+  public synchronized void setScanlineRendering(final boolean value) {
+    preferences.putBoolean(Option.SCANLINE_RENDERING.name(), value);
+  }
+
+  public synchronized boolean isParallelGfxCores() {
+    return preferences.getBoolean(Option.PARALLEL_GFX_CORES.name(), false);
+  }
+
+  public synchronized void setParallelGfxCores(final boolean value) {
+    preferences.putBoolean(Option.PARALLEL_GFX_CORES.name(), value);
+  }
+
   public synchronized boolean isSoundTurnedOn() {
     return preferences.getBoolean(Option.SOUND_TURNED_ON.name(), false);
   }
@@ -401,6 +433,10 @@ public final class AppOptions {
     ROMPATH,
     COVOXFB,
     TURBOSOUND,
+    PARALLEL_MODULES,
+    SOUND_DRIVEN_CLOCK,
+    SCANLINE_RENDERING,
+    PARALLEL_GFX_CORES,
     INTBETWEENFRAMES,
     LAST_SELECTED_AUDIO_DEVICE,
     SOUND_TURNED_ON,
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2014-2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.zxpoly.utils;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scheduler of emulated frames by wall clock. Frame boundaries are calculated from the start time
+ * so that timing errors are not accumulated, the thread is parked till the next boundary and only
+ * the last part of waiting is made by spinning. The spin part is adapted to the measured park
+ * overshoot. Optionally frames can be driven by sound card, then the next frame starts when the
+ * sound buffer needs more data and the wall clock is used only as guard for stalled sound line.
+ */
+public final class FrameScheduler {
+
+  private static final long MIN_SPIN_NANOS = 100_000L;
+  private static final long MAX_SPIN_NANOS = 2_000_000L;
+  private static final int MAX_FRAMES_TO_CATCH_UP = 5;
+  private static final long STATISTICS_PERIOD_NANOS = 1_000_000_000L;
+  private static final long AUDIO_POLL_NANOS = 1_000_000L;
+
+  private final long periodNanos;
+  private long nextFrameTime;
+  private long spinNanos = 500_000L;
+
+  private long statisticsStart;
+  private int statisticsFrames;
+  private long statisticsJitterSum;
+
+  private volatile double achievedFps;
+  private volatile double jitterMillis;
+  private volatile AudioClock audioClock;
+
+  public FrameScheduler(final Duration period) {
+    this.periodNanos = period.toNanos();
+    this.reset();
+  }
+
+  /**
+   * Start new schedule since the current time.
+   */
+  public void reset() {
+    final long now = System.nanoTime();
+    this.nextFrameTime = now + this.periodNanos;
+    this.statisticsStart = now;
+    this.statisticsFrames = 0;
+    this.statisticsJitterSum = 0L;
+  }
+
+  /**
+   * Set sound clock to drive frames.
+   *
+   * @param audioClock sound clock, null to use only wall clock
+   */
+  public void setAudioClock(final AudioClock audioClock) {
+    this.audioClock = audioClock;
+  }
+
+  private boolean isAudioDriven() {
+    final AudioClock clock = this.audioClock;
+    return clock != null && clock.isAvailable();
+  }
+
+  /**
+   * Check that time of the next frame is reached. If frames are driven by sound card then the sound
+   * buffer is taken into account only when all ti-states of the current frame are executed, before
+   * that only stalled emulation is detected by wall clock.
+   *
+   * @param frameTiStatesExhausted true if all ti-states of the current frame are executed
+   * @return true if the frame time is reached
+   */
+  public boolean isFrameTimeReached(final boolean frameTiStatesExhausted) {
+    final long delay = System.nanoTime() - this.nextFrameTime;
+    if (this.isAudioDriven()) {
+      return (frameTiStatesExhausted && !this.audioClock.isBufferFilled()) || delay >= this.periodNanos;
+    }
+    return delay >= 0L;
+  }
+
+  /**
+   * Move the schedule to the next frame, must be called when the reached frame time is processed.
+   */
+  public void nextFrame() {
+    final long now = System.nanoTime();
+    final long lateness = now - this.nextFrameTime;
+
+    this.statisticsFrames++;
+    this.statisticsJitterSum += Math.abs(lateness);
+    final long statisticsTime = now - this.statisticsStart;
+    if (statisticsTime >= STATISTICS_PERIOD_NANOS) {
+      this.achievedFps = this.statisticsFrames * 1.0e9d / statisticsTime;
+      this.jitterMillis = this.statisticsJitterSum / (this.statisticsFrames * 1.0e6d);
+      this.statisticsStart = now;
+      this.statisticsFrames = 0;
+      this.statisticsJitterSum = 0L;
+    }
+
+    if (this.isAudioDriven()) {
+      // frames follow sound card, wall clock schedule is not caught up
+      this.nextFrameTime = now + this.periodNanos;
+    } else {
+      this.nextFrameTime += this.periodNanos;
+      if (now - this.nextFrameTime > this.periodNanos * MAX_FRAMES_TO_CATCH_UP) {
+        // too late, for instance after pause, there is no reason to catch up lost frames
+        this.nextFrameTime = now + this.periodNanos;
+      }
+    }
+  }
+
+  /**
+   * Wait for the next frame time, must be called when all ti-states of the current frame are
+   * executed. The thread is parked and then spins for short time before the frame boundary. If
+   * frames are driven by sound card then the thread is parked till the sound buffer needs more
+   * data. Returns immediately if the thread is interrupted.
+   */
+  public void awaitFrameTime() {
+    if (this.isAudioDriven()) {
+      while (!this.isFrameTimeReached(true) && !Thread.currentThread().isInterrupted()) {
+        LockSupport.parkNanos(this, AUDIO_POLL_NANOS);
+      }
+      return;
+    }
+
+    final long deadline = this.nextFrameTime;
+    long remain = deadline - System.nanoTime();
+    if (remain > this.spinNanos) {
+      final long parkUntil = deadline - this.spinNanos;
+      LockSupport.parkNanos(this, remain - this.spinNanos);
+      final long overshoot = System.nanoTime() - parkUntil;
+      // make spin part a bit bigger than the last overshoot or slowly decrease it
+      if (overshoot > this.spinNanos / 2) {
+        this.spinNanos = Math.min(MAX_SPIN_NANOS, overshoot * 2);
+      } else {
+        this.spinNanos = Math.max(MIN_SPIN_NANOS, this.spinNanos - (this.spinNanos >> 4));
+      }
+      remain = deadline - System.nanoTime();
+    }
+    while (remain > 0L && !Thread.currentThread().isInterrupted()) {
+      Thread.onSpinWait();
+      remain = deadline - System.nanoTime();
+    }
+  }
+
+  /**
+   * Get number of frames per second measured during the last second.
+   *
+   * @return achieved frames per second, zero if not measured yet
+   */
+  public double getAchievedFps() {
+    return this.achievedFps;
+  }
+
+  /**
+   * Get average deviation of frame start from its scheduled time, measured during the last second.
+   *
+   * @return jitter in milliseconds
+   */
+  public double getJitterMillis() {
+    return this.jitterMillis;
+  }
+
+  /**
+   * Source of timing from sound output.
+   */
+  public interface AudioClock {
+    /**
+     * Check that sound is played and can drive frames.
+     *
+     * @return true if sound output is active
+     */
+    boolean isAvailable();
+
+    /**
+     * Check that sound buffer contains enough data and the next frame can be postponed.
+     *
+     * @return true if buffer is filled
+     */
+    boolean isBufferFilled();
+  }
+}
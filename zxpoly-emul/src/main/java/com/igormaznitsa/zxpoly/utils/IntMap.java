@@ -52,6 +52,20 @@ public final class IntMap {
     return OptionalInt.empty();
   }
 
+  public int get(final int key, final int defaultValue) {
+    final int basketIndex = key % this.baskets.length;
+    long[] basket = this.baskets[basketIndex];
+    if (basket != null) {
+      final long longKey = (long) key & 0xFFFF_FFFFL;
+      for (final long kvPair : basket) {
+        if ((kvPair >>> 32) == longKey) {
+          return (int) kvPair;
+        }
+      }
+    }
+    return defaultValue;
+  }
+
   public int size() {
     int result = 0;
     for (final long[] b : this.baskets) {
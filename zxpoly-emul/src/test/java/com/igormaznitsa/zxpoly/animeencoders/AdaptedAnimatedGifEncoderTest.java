@@ -0,0 +1,52 @@
+package com.igormaznitsa.zxpoly.animeencoders;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class AdaptedAnimatedGifEncoderTest {
+
+  private static final int[] PALETTE = new int[] {0x000000, 0xFF0000, 0x00FF00, 0xFFFFFF};
+
+  private static int[] makeFrame(final int rgb) {
+    final int[] result = new int[16 * 8];
+    Arrays.fill(result, rgb);
+    result[5] = 0xFFFFFF;
+    return result;
+  }
+
+  private static byte[] encode(final Duration delay, final boolean useRepeat, final int repeats)
+          throws IOException {
+    final AdaptedAnimatedGifEncoder encoder = new AdaptedAnimatedGifEncoder(16, 8, PALETTE);
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    encoder.setDelay(delay);
+    encoder.start(buffer);
+    encoder.repeatLastFrame(2);
+    encoder.addFrame(makeFrame(0xFF0000));
+    if (useRepeat) {
+      encoder.repeatLastFrame(repeats);
+    } else {
+      for (int i = 0; i < repeats; i++) {
+        encoder.addFrame(makeFrame(0xFF0000));
+      }
+    }
+    encoder.addFrame(makeFrame(0x00FF00));
+    encoder.finish();
+    return buffer.toByteArray();
+  }
+
+  @Test
+  public void testRepeatLastFrameSameAsAddingFrame() throws Exception {
+    assertArrayEquals(encode(Duration.ofMillis(40), false, 7), encode(Duration.ofMillis(40), true, 7));
+  }
+
+  @Test
+  public void testRepeatLastFrameSplitsLongDelay() throws Exception {
+    assertArrayEquals(encode(Duration.ofSeconds(200), false, 9), encode(Duration.ofSeconds(200), true, 9));
+  }
+}
@@ -0,0 +1,142 @@
+package com.igormaznitsa.zxpoly.animeencoders;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncAnimationEncoderTest {
+
+  @Test
+  public void testQueuedFramesEncodedAndClosedOnWorker() throws Exception {
+    final RecordingEncoder recorder = new RecordingEncoder();
+    final AtomicInteger processed = new AtomicInteger();
+    final AsyncAnimationEncoder encoder = new AsyncAnimationEncoder(recorder, 8);
+    for (int i = 0; i < 5; i++) {
+      final int[] frame = new int[] {i};
+      encoder.saveFrame(() -> frame, x -> {
+        processed.incrementAndGet();
+        return x;
+      });
+    }
+    encoder.close();
+
+    assertEquals(5, processed.get());
+    assertEquals(5, recorder.saved.get());
+    assertEquals(0, recorder.repeated.get());
+    assertEquals(1, recorder.closed.get());
+    assertNotEquals(Thread.currentThread(), recorder.closeThread);
+  }
+
+  @Test
+  public void testDroppedFramesRepeatLastFrame() throws Exception {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final RecordingEncoder recorder = new RecordingEncoder() {
+      @Override
+      public void saveFrame(final int[] frame) throws IOException {
+        if (this.saved.get() == 0) {
+          entered.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException ex) {
+            throw new IOException(ex);
+          }
+        }
+        super.saveFrame(frame);
+      }
+    };
+    final AtomicInteger made = new AtomicInteger();
+    final AsyncAnimationEncoder encoder = new AsyncAnimationEncoder(recorder, 2);
+
+    encoder.saveFrame(() -> {
+      made.incrementAndGet();
+      return new int[1];
+    }, x -> x);
+    assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 10; i++) {
+      encoder.saveFrame(() -> {
+        made.incrementAndGet();
+        return new int[1];
+      }, x -> x);
+    }
+    encoder.repeatLastFrame(3);
+    release.countDown();
+    encoder.close();
+
+    assertEquals(3, made.get());
+    assertEquals(3, recorder.saved.get());
+    assertEquals(8 + 3, recorder.repeated.get());
+    assertEquals(1, recorder.closed.get());
+  }
+
+  @Test
+  public void testWorkerErrorPropagated() throws Exception {
+    final IllegalStateException problem = new IllegalStateException("test");
+    final RecordingEncoder recorder = new RecordingEncoder() {
+      @Override
+      public void saveFrame(final int[] frame) throws IOException {
+        if (this.saved.incrementAndGet() == 2) {
+          throw problem;
+        }
+      }
+    };
+    final AsyncAnimationEncoder encoder = new AsyncAnimationEncoder(recorder, 4);
+    for (int i = 0; i < 3; i++) {
+      encoder.saveFrame(new int[1]);
+    }
+
+    try {
+      encoder.close();
+      fail("Must throw IOException");
+    } catch (IOException ex) {
+      assertSame(problem, ex.getCause());
+    }
+    assertEquals(2, recorder.saved.get());
+    assertEquals(1, recorder.closed.get());
+
+    try {
+      encoder.saveFrame(new int[1]);
+      fail("Must throw IOException");
+    } catch (IOException ex) {
+      assertSame(problem, ex.getCause());
+    }
+  }
+
+  private static class RecordingEncoder implements AnimationEncoder {
+    final AtomicInteger saved = new AtomicInteger();
+    final AtomicInteger repeated = new AtomicInteger();
+    final AtomicInteger closed = new AtomicInteger();
+    volatile Thread closeThread;
+
+    @Override
+    public void saveFrame(final int[] frame) throws IOException {
+      this.saved.incrementAndGet();
+    }
+
+    @Override
+    public void repeatLastFrame(final int count) {
+      this.repeated.addAndGet(count);
+    }
+
+    @Override
+    public int getIntsBetweenFrames() {
+      return 1;
+    }
+
+    @Override
+    public void close() {
+      this.closeThread = Thread.currentThread();
+      this.closed.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.igormaznitsa.zxpoly.components.snd;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class Ay8910ChipTest {
+
+  private static void writeReg(final Ay8910Chip chip, final int reg, final int value) {
+    chip.writeAddress(reg);
+    chip.writeData(value);
+  }
+
+  @Test
+  public void testSkippedStepsRenderSameOutput() {
+    final int[] levelsStep = new int[3];
+    final int[] levelsLazy = new int[3];
+
+    final Ay8910Chip chipStep = new Ay8910Chip((ay, a, b, c) -> {
+      levelsStep[0] = a;
+      levelsStep[1] = b;
+      levelsStep[2] = c;
+    });
+    final Ay8910Chip chipLazy = new Ay8910Chip((ay, a, b, c) -> {
+      levelsLazy[0] = a;
+      levelsLazy[1] = b;
+      levelsLazy[2] = c;
+    });
+
+    final Random rnd = new Random(12345L);
+    for (final Ay8910Chip chip : new Ay8910Chip[] {chipStep, chipLazy}) {
+      writeReg(chip, 0, 0x30);
+      writeReg(chip, 2, 0x51);
+      writeReg(chip, 4, 0x07);
+      writeReg(chip, 6, 0x05);
+      writeReg(chip, 7, 0b110_000);
+      writeReg(chip, 11, 0x20);
+      writeReg(chip, 13, 0x0E);
+    }
+
+    for (int i = 0; i < 200000; i++) {
+      final int spent = 4 + rnd.nextInt(20);
+      if (rnd.nextInt(1000) == 0) {
+        final int reg = 8 + rnd.nextInt(3);
+        final int value = rnd.nextInt(0x20);
+        writeReg(chipStep, reg, value);
+        writeReg(chipLazy, reg, value);
+      }
+
+      chipStep.step(spent);
+      if (rnd.nextInt(50) == 0) {
+        chipLazy.step(spent);
+        assertArrayEquals(levelsStep, levelsLazy);
+      } else {
+        chipLazy.skip(spent);
+      }
+    }
+  }
+}
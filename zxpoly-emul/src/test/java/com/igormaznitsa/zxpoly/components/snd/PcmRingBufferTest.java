@@ -0,0 +1,76 @@
+package com.igormaznitsa.zxpoly.components.snd;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PcmRingBufferTest {
+
+  @Test
+  public void testWriteReadWrapAround() {
+    final PcmRingBuffer ring = new PcmRingBuffer(10, 2);
+    assertEquals(16, ring.capacity());
+
+    final byte[] data = new byte[12];
+    final byte[] read = new byte[12];
+    for (int pass = 0; pass < 10; pass++) {
+      for (int i = 0; i < data.length; i++) {
+        data[i] = (byte) (pass * 31 + i);
+      }
+      assertEquals(12, ring.write(data, 0, data.length));
+      assertEquals(12, ring.size());
+      assertEquals(12, ring.read(read, 0, read.length));
+      for (int i = 0; i < data.length; i++) {
+        assertEquals(data[i], read[i]);
+      }
+      assertEquals(0, ring.size());
+    }
+    assertEquals(0L, ring.getOverruns());
+  }
+
+  @Test
+  public void testOverrunWritesWholeFramesOnly() {
+    final PcmRingBuffer ring = new PcmRingBuffer(16, 4);
+    assertEquals(12, ring.write(new byte[12], 0, 12));
+    assertEquals(4, ring.write(new byte[10], 0, 10));
+    assertEquals(1L, ring.getOverruns());
+    assertEquals(0, ring.write(new byte[4], 0, 4));
+    assertEquals(2L, ring.getOverruns());
+    assertEquals(8, ring.skip(8));
+    assertEquals(8, ring.size());
+  }
+
+  @Test(timeout = 10000L)
+  public void testProducerConsumer() throws Exception {
+    final PcmRingBuffer ring = new PcmRingBuffer(256, 4);
+    final int total = 1 << 20;
+
+    final Thread producer = new Thread(() -> {
+      final byte[] block = new byte[60];
+      int counter = 0;
+      while (counter < total) {
+        final int length = Math.min(block.length, total - counter);
+        for (int i = 0; i < length; i++) {
+          block[i] = (byte) (counter + i);
+        }
+        final int written = ring.write(block, 0, length);
+        counter += written;
+        if (written < length) {
+          Thread.yield();
+        }
+      }
+    });
+    producer.start();
+
+    final byte[] block = new byte[100];
+    int counter = 0;
+    while (counter < total) {
+      final int read = ring.read(block, 0, block.length);
+      for (int i = 0; i < read; i++) {
+        assertEquals((byte) (counter + i), block[i]);
+      }
+      counter += read;
+    }
+    producer.join();
+  }
+}
@@ -0,0 +1,54 @@
+package com.igormaznitsa.zxpoly.headless;
+
+import com.igormaznitsa.zxpoly.components.snd.Beeper;
+import org.junit.Test;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.File;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class WavSoundWriterTest {
+
+  @Test
+  public void testWrittenFileIsReadable() throws Exception {
+    final File file = File.createTempFile("zxpoly-test", ".wav");
+    file.deleteOnExit();
+
+    final byte[] block = new byte[400];
+    for (int i = 0; i < block.length; i++) {
+      block[i] = (byte) (i * 7);
+    }
+
+    try (final WavSoundWriter writer = new WavSoundWriter(file, Beeper.AUDIO_FORMAT)) {
+      writer.onSoundData(block, block.length);
+      writer.onSoundData(block, 200);
+      assertEquals(150.0d / Beeper.AUDIO_FORMAT.getFrameRate(), writer.getDurationSeconds(), 1.0e-9d);
+    }
+
+    try (final AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      assertEquals(Beeper.AUDIO_FORMAT.getSampleRate(), in.getFormat().getSampleRate(), 0.0f);
+      assertEquals(Beeper.AUDIO_FORMAT.getChannels(), in.getFormat().getChannels());
+      assertEquals(Beeper.AUDIO_FORMAT.getSampleSizeInBits(), in.getFormat().getSampleSizeInBits());
+      assertEquals(150L, in.getFrameLength());
+
+      final byte[] read = new byte[600];
+      int offset = 0;
+      while (offset < read.length) {
+        final int count = in.read(read, offset, read.length - offset);
+        if (count < 0) {
+          break;
+        }
+        offset += count;
+      }
+      assertEquals(read.length, offset);
+
+      final byte[] expected = new byte[600];
+      System.arraycopy(block, 0, expected, 0, 400);
+      System.arraycopy(block, 0, expected, 400, 200);
+      assertArrayEquals(expected, read);
+    }
+  }
+}
@@ -20,4 +20,18 @@ public class IntMapTest extends TestCase {
       assertEquals(10000 + i, map.get(i).getAsInt());
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetWithDefault() {
+    final IntMap map = new IntMap(16);
+
+    for (int i = 0; i < 1000; i += 2) {
+      map.put(i, -i);
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals((i & 1) == 0 ? -i : 12345, map.get(i, 12345));
+    }
+    assertEquals(-1, map.get(Integer.MIN_VALUE, -1));
+  }
+}
@@ -17,6 +17,9 @@
 
 package com.igormaznitsa.z80;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -107,6 +110,17 @@ public final class Z80 {
     FTABLE_SZYXP[0] |= FLAG_Z;
   }
 
+  // handler tables for table decoding, DD and FD prefixed instructions use the main table
+  // and DDCB with FDCB prefixed ones use the same index CB table
+  private static final OpcodeHandler[] TABLE_MAIN = makeMainTable();
+  private static final OpcodeHandler[] TABLE_CB = makeCbTable();
+  private static final OpcodeHandler[] TABLE_ED = makeEdTable();
+  private static final OpcodeHandler[] TABLE_XYCB = makeIndexCbTable();
+
+  // register set of 8 bytes as one long value, byte of register N is placed at bit 8*N
+  private static final VarHandle REG_SET_AS_LONG =
+          MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
   private int memptr;
 
   private final Z80CPUBus bus;
@@ -134,15 +148,41 @@ public final class Z80 {
   private boolean insideBlockInstructionPrev;
   private boolean insideBlockInstruction;
   private int resetCycle = 0;
+  private int runTstates;
+  private boolean runStopRequested;
 
   private int internalRegQ;
   private int internalRegLastQ;
 
+  // masks for alignRegisterValuesWith made for the last used packed register flags
+  private int alignFlags = -1;
+  private long alignRegSetMask;
+  private long alignAltRegSetMask;
+  private int alignIxMask;
+  private int alignIyMask;
+  private int alignPcMask;
+  private int alignSpMask;
+
+  private final boolean tableDecoding;
+
   public Z80(final Z80CPUBus bus) {
+    this(bus, false);
+  }
+
+  /**
+   * Create CPU.
+   *
+   * @param bus           CPU bus, must not be null
+   * @param tableDecoding if true then instructions are decoded through precalculated handler tables,
+   *                      otherwise through switch statements
+   * @since 2.2.2
+   */
+  public Z80(final Z80CPUBus bus, final boolean tableDecoding) {
     if (bus == null) {
       throw new NullPointerException("The CPU BUS must not be null");
     }
     this.bus = bus;
+    this.tableDecoding = tableDecoding;
     _reset(0);
     _reset(1);
     _reset(2);
@@ -183,6 +223,7 @@ public final class Z80 {
     this.insideBlockInstruction = cpu.insideBlockInstruction;
     this.insideBlockInstructionPrev = cpu.insideBlockInstructionPrev;
     this.bus = cpu.bus;
+    this.tableDecoding = cpu.tableDecoding;
   }
 
   private static int extractX(final int cmndByte) {
@@ -684,59 +725,103 @@ public final class Z80 {
     this.detectedNMI = src.detectedNMI;
 
     if (packedRegisterFlags == 0) {
+      // default alignment, only PC and SP
       this.regPC = src.regPC;
       this.regSP = src.regSP;
+      return this;
+    }
+
+    if (packedRegisterFlags != this.alignFlags) {
+      this.prepareAlignMasks(packedRegisterFlags);
+    }
+
+    // all registers of set are merged by mask at once
+    final long regSetMask = this.alignRegSetMask;
+    if (regSetMask != 0L) {
+      REG_SET_AS_LONG.set(this.regSet, 0,
+              ((long) REG_SET_AS_LONG.get(this.regSet, 0) & ~regSetMask)
+                      | ((long) REG_SET_AS_LONG.get(src.regSet, 0) & regSetMask));
+    }
+    final long altRegSetMask = this.alignAltRegSetMask;
+    if (altRegSetMask != 0L) {
+      REG_SET_AS_LONG.set(this.altRegSet, 0,
+              ((long) REG_SET_AS_LONG.get(this.altRegSet, 0) & ~altRegSetMask)
+                      | ((long) REG_SET_AS_LONG.get(src.altRegSet, 0) & altRegSetMask));
+    }
+    this.regIX = (this.regIX & ~this.alignIxMask) | (src.regIX & this.alignIxMask);
+    this.regIY = (this.regIY & ~this.alignIyMask) | (src.regIY & this.alignIyMask);
+    this.regPC = (this.regPC & ~this.alignPcMask) | (src.regPC & this.alignPcMask);
+    this.regSP = (this.regSP & ~this.alignSpMask) | (src.regSP & this.alignSpMask);
+    return this;
+  }
+
+  private void prepareAlignMasks(final int packedRegisterFlags) {
+    long regSetMask = 0L;
+    long altRegSetMask = 0L;
+    int ixMask = 0;
+    int iyMask = 0;
+    int pcMask = 0;
+    int spMask = 0;
+
+    if (packedRegisterFlags == 0) {
+      pcMask = 0xFFFF;
+      spMask = 0xFFFF;
     } else {
       //"AFBCDEHL XxYy10PSs afbcdehl"
+      int flags = packedRegisterFlags;
       int pos = 0;
-      while (packedRegisterFlags != 0) {
-        if ((packedRegisterFlags & 1) != 0) {
+      while (flags != 0) {
+        if ((flags & 1) != 0) {
           if (pos < 8) {
-            this.regSet[pos] = src.regSet[pos];
+            regSetMask |= 0xFFL << (pos * 8);
           } else if (pos < 17) {
             switch (pos - 8) {
               case 0:
-                this.regIX = (this.regIX & 0xFF) | (src.regIX & 0xFF00);
+                ixMask |= 0xFF00;
                 break;
               case 1:
-                this.regIX = (this.regIX & 0xFF00) | (src.regIX & 0xFF);
+                ixMask |= 0xFF;
                 break;
               case 2:
-                this.regIY = (this.regIY & 0xFF) | (src.regIY & 0xFF00);
+                iyMask |= 0xFF00;
                 break;
               case 3:
-                this.regIY = (this.regIY & 0xFF00) | (src.regIY & 0xFF);
+                iyMask |= 0xFF;
                 break;
               case 4:
-                this.regSet[REG_F] =
-                        (byte) ((this.regSet[REG_F] & FLAG_C) | (src.regSet[REG_F] & ~FLAG_C));
+                regSetMask |= (long) (~FLAG_C & 0xFF) << (REG_F * 8);
                 break;
               case 5:
-                this.altRegSet[REG_F] =
-                        (byte) ((this.altRegSet[REG_F] & FLAG_C) | (src.altRegSet[REG_F] & ~FLAG_C));
+                altRegSetMask |= (long) (~FLAG_C & 0xFF) << (REG_F * 8);
                 break;
               case 6:
-                this.regPC = src.regPC;
+                pcMask = 0xFFFF;
                 break;
               case 7:
-                this.regSP = (this.regSP & 0xFF) | (src.regSP & 0xFF00);
+                spMask |= 0xFF00;
                 break;
               case 8:
-                this.regSP = (this.regSP & 0xFF00) | (src.regSP & 0xFF);
+                spMask |= 0xFF;
                 break;
               default:
                 throw new Error("Unexpected state");
             }
           } else {
-            final int reg = pos - 17;
-            this.altRegSet[reg] = src.altRegSet[reg];
+            altRegSetMask |= 0xFFL << ((pos - 17) * 8);
           }
         }
-        packedRegisterFlags >>>= 1;
+        flags >>>= 1;
         pos++;
       }
     }
-    return this;
+
+    this.alignRegSetMask = regSetMask;
+    this.alignAltRegSetMask = altRegSetMask;
+    this.alignIxMask = ixMask;
+    this.alignIyMask = iyMask;
+    this.alignPcMask = pcMask;
+    this.alignSpMask = spMask;
+    this.alignFlags = packedRegisterFlags;
   }
 
   private int readReg8(final int ctx, final int r) {
@@ -1063,6 +1148,57 @@ public final class Z80 {
     return spentTstates;
   }
 
+  /**
+   * Execute steps with the same incoming signals till the budget of ti-states is
+   * spent, the CPU enters HALT or stop is requested by the bus through {@link #requestStop()}.
+   * At least one step is executed. Signals are not changed during the run so that the caller
+   * must limit the budget by the moment of the next signal change.
+   *
+   * @param ctx             context of method call, will be propagated to all sub-calls
+   * @param incomingSignals external signal states to be processed during all steps
+   * @param tstatesBudget   number of ti-states to be spent
+   * @return spent machine cycles during execution, number of ti-states of the last step
+   * can be read through {@link #getStepTstates()}
+   */
+  public int run(final int ctx, final int incomingSignals, final int tstatesBudget) {
+    this.runStopRequested = false;
+    this.runTstates = 0;
+    try {
+      do {
+        final int prevOutSignals = this.outSignals;
+        this.step(ctx, incomingSignals);
+        this.runTstates += this.tiStates;
+        if ((prevOutSignals & ~this.outSignals & SIGNAL_OUT_nHALT) != 0) {
+          // HALT is entered
+          break;
+        }
+      } while (this.runTstates < tstatesBudget && !this.runStopRequested);
+      return this.runTstates;
+    } finally {
+      this.runTstates = 0;
+    }
+  }
+
+  /**
+   * Request stop of the current run after the current step. Can be called by the bus during
+   * processing of an instruction, for instance if a port write needs synchronization.
+   *
+   * @see #run(int, int, int)
+   */
+  public void requestStop() {
+    this.runStopRequested = true;
+  }
+
+  /**
+   * Get number of ti-states spent by completed steps of the current run.
+   *
+   * @return number of ti-states, zero if there is no run in progress
+   * @see #run(int, int, int)
+   */
+  public int getRunTstates() {
+    return this.runTstates;
+  }
+
   /**
    * Process one step.
    *
@@ -1115,7 +1251,15 @@ public final class Z80 {
     }
   }
 
+  public boolean isTableDecoding() {
+    return this.tableDecoding;
+  }
+
   private boolean _step(final int ctx, final int commandByte) {
+    if (this.tableDecoding) {
+      return _stepByTable(ctx, commandByte);
+    }
+
     this.lastInstructionByte = commandByte;
 
     boolean commandCompleted = true;
@@ -1545,6 +1689,724 @@ public final class Z80 {
     return commandCompleted;
   }
 
+  private boolean _stepByTable(final int ctx, final int commandByte) {
+    this.lastInstructionByte = commandByte;
+    this.insideBlockInstruction = false;
+
+    final boolean commandCompleted;
+    switch (this.prefix) {
+      case 0xDD:
+      case 0xFD:
+      case 0x00: {
+        commandCompleted = TABLE_MAIN[commandByte].execute(this, ctx);
+      }
+      break;
+      case 0xFDCB:
+      case 0xDDCB: {
+        if (this.cbDisplacementByte < 0) {
+          this.cbDisplacementByte = commandByte;
+          commandCompleted = false;
+        } else {
+          TABLE_XYCB[commandByte].execute(this, ctx);
+          this.prefix = 0;
+          this.cbDisplacementByte = -1;
+          commandCompleted = true;
+        }
+      }
+      break;
+      case 0xCB: {
+        TABLE_CB[commandByte].execute(this, ctx);
+        this.prefix = 0;
+        commandCompleted = true;
+      }
+      break;
+      case 0xED: {
+        this.prefix = 0;
+        commandCompleted = TABLE_ED[commandByte].execute(this, ctx);
+      }
+      break;
+      default:
+        throw new Error("Illegal prefix state [0x"
+                + Integer.toHexString(this.prefix).toUpperCase(Locale.ENGLISH) + ']');
+    }
+    return commandCompleted;
+  }
+
+  private static OpcodeHandler[] makeMainTable() {
+    final OpcodeHandler[] result = new OpcodeHandler[0x100];
+    for (int commandByte = 0; commandByte < 0x100; commandByte++) {
+      final int y = extractY(commandByte);
+      final int z = extractZ(commandByte);
+      final int p = extractP(commandByte);
+      final int q = extractQ(commandByte);
+      final OpcodeHandler handler;
+      switch (extractX(commandByte)) {
+        case 0: {
+          switch (z) {
+            case 0: {
+              switch (y) {
+                case 0:
+                  handler = (c, ctx) -> {
+                    c.doNOP();
+                    return true;
+                  };
+                  break;
+                case 1:
+                  handler = (c, ctx) -> {
+                    c.doEX_AF_AF();
+                    return true;
+                  };
+                  break;
+                case 2:
+                  handler = (c, ctx) -> {
+                    c.doDJNZ(ctx);
+                    return true;
+                  };
+                  break;
+                case 3:
+                  handler = (c, ctx) -> {
+                    c.doJR(ctx);
+                    return true;
+                  };
+                  break;
+                default:
+                  handler = (c, ctx) -> {
+                    c.doJR(ctx, y - 4);
+                    return true;
+                  };
+                  break;
+              }
+            }
+            break;
+            case 1: {
+              if (q == 0) {
+                handler = (c, ctx) -> {
+                  c.doLDRegPairByNextWord(ctx, p);
+                  return true;
+                };
+              } else {
+                handler = (c, ctx) -> {
+                  c.doADD_HL_RegPair(p);
+                  return true;
+                };
+              }
+            }
+            break;
+            case 2: {
+              if (q == 0) {
+                switch (p) {
+                  case 0:
+                    handler = (c, ctx) -> {
+                      c.doLD_mBC_A(ctx);
+                      return true;
+                    };
+                    break;
+                  case 1:
+                    handler = (c, ctx) -> {
+                      c.doLD_mDE_A(ctx);
+                      return true;
+                    };
+                    break;
+                  case 2:
+                    handler = (c, ctx) -> {
+                      c.doLD_mNN_HL(ctx);
+                      return true;
+                    };
+                    break;
+                  default:
+                    handler = (c, ctx) -> {
+                      c.doLD_mNN_A(ctx);
+                      return true;
+                    };
+                    break;
+                }
+              } else {
+                switch (p) {
+                  case 0:
+                    handler = (c, ctx) -> {
+                      c.doLD_A_mBC(ctx);
+                      return true;
+                    };
+                    break;
+                  case 1:
+                    handler = (c, ctx) -> {
+                      c.doLD_A_mDE(ctx);
+                      return true;
+                    };
+                    break;
+                  case 2:
+                    handler = (c, ctx) -> {
+                      c.doLD_HL_mem(ctx);
+                      return true;
+                    };
+                    break;
+                  default:
+                    handler = (c, ctx) -> {
+                      c.doLD_A_mem(ctx);
+                      return true;
+                    };
+                    break;
+                }
+              }
+            }
+            break;
+            case 3: {
+              if (q == 0) {
+                handler = (c, ctx) -> {
+                  c.doINCRegPair(p);
+                  return true;
+                };
+              } else {
+                handler = (c, ctx) -> {
+                  c.doDECRegPair(p);
+                  return true;
+                };
+              }
+            }
+            break;
+            case 4:
+              handler = (c, ctx) -> {
+                c.doINCReg(ctx, y);
+                return true;
+              };
+              break;
+            case 5:
+              handler = (c, ctx) -> {
+                c.doDECReg(ctx, y);
+                return true;
+              };
+              break;
+            case 6:
+              handler = (c, ctx) -> {
+                c.doLD_Reg_ByValue(ctx, y);
+                return true;
+              };
+              break;
+            default: {
+              switch (y) {
+                case 0:
+                  handler = (c, ctx) -> {
+                    c.doRLCA();
+                    return true;
+                  };
+                  break;
+                case 1:
+                  handler = (c, ctx) -> {
+                    c.doRRCA();
+                    return true;
+                  };
+                  break;
+                case 2:
+                  handler = (c, ctx) -> {
+                    c.doRLA();
+                    return true;
+                  };
+                  break;
+                case 3:
+                  handler = (c, ctx) -> {
+                    c.doRRA();
+                    return true;
+                  };
+                  break;
+                case 4:
+                  handler = (c, ctx) -> {
+                    c.doDAA();
+                    return true;
+                  };
+                  break;
+                case 5:
+                  handler = (c, ctx) -> {
+                    c.doCPL();
+                    return true;
+                  };
+                  break;
+                case 6:
+                  handler = (c, ctx) -> {
+                    c.doSCF();
+                    return true;
+                  };
+                  break;
+                default:
+                  handler = (c, ctx) -> {
+                    c.doCCF();
+                    return true;
+                  };
+                  break;
+              }
+            }
+            break;
+          }
+        }
+        break;
+        case 1: {
+          if (z == 6 && y == 6) {
+            handler = (c, ctx) -> {
+              c.doHalt();
+              return true;
+            };
+          } else {
+            handler = (c, ctx) -> {
+              c.doLDRegByReg(ctx, y, z);
+              return true;
+            };
+          }
+        }
+        break;
+        case 2: {
+          handler = (c, ctx) -> {
+            c.doALU_A_Reg(ctx, y, z);
+            return true;
+          };
+        }
+        break;
+        default: {
+          switch (z) {
+            case 0:
+              handler = (c, ctx) -> {
+                c.doRETByFlag(ctx, y);
+                return true;
+              };
+              break;
+            case 1: {
+              if (q == 0) {
+                handler = (c, ctx) -> {
+                  c.doPOPRegPair(ctx, p);
+                  return true;
+                };
+              } else {
+                switch (p) {
+                  case 0:
+                    handler = (c, ctx) -> {
+                      c.doRET(ctx);
+                      return true;
+                    };
+                    break;
+                  case 1:
+                    handler = (c, ctx) -> {
+                      c.doEXX();
+                      return true;
+                    };
+                    break;
+                  case 2:
+                    handler = (c, ctx) -> {
+                      c.doJP_HL(ctx);
+                      return true;
+                    };
+                    break;
+                  default:
+                    handler = (c, ctx) -> {
+                      c.doLD_SP_HL(ctx);
+                      return true;
+                    };
+                    break;
+                }
+              }
+            }
+            break;
+            case 2:
+              handler = (c, ctx) -> {
+                c.doJP_cc(ctx, y);
+                return true;
+              };
+              break;
+            case 3: {
+              switch (y) {
+                case 0:
+                  handler = (c, ctx) -> {
+                    c.doJP(ctx);
+                    return true;
+                  };
+                  break;
+                case 1:
+                  handler = (c, ctx) -> {
+                    c.prefix = (c.prefix << 8) | 0xCB;
+                    c.cbDisplacementByte = -1;
+                    return false;
+                  };
+                  break;
+                case 2:
+                  handler = (c, ctx) -> {
+                    c.doOUTnA(ctx);
+                    return true;
+                  };
+                  break;
+                case 3:
+                  handler = (c, ctx) -> {
+                    c.doIN_A_n(ctx);
+                    return true;
+                  };
+                  break;
+                case 4:
+                  handler = (c, ctx) -> {
+                    c.doEX_mSP_HL(ctx);
+                    return true;
+                  };
+                  break;
+                case 5:
+                  handler = (c, ctx) -> {
+                    c.doEX_DE_HL();
+                    return true;
+                  };
+                  break;
+                case 6:
+                  handler = (c, ctx) -> {
+                    c.doDI();
+                    return true;
+                  };
+                  break;
+                default:
+                  handler = (c, ctx) -> {
+                    c.doEI();
+                    return true;
+                  };
+                  break;
+              }
+            }
+            break;
+            case 4:
+              handler = (c, ctx) -> {
+                c.doCALL(ctx, y);
+                return true;
+              };
+              break;
+            case 5: {
+              if (q == 0) {
+                handler = (c, ctx) -> {
+                  c.doPUSH(ctx, p);
+                  return true;
+                };
+              } else {
+                switch (p) {
+                  case 0:
+                    handler = (c, ctx) -> {
+                      c.doCALL(ctx);
+                      return true;
+                    };
+                    break;
+                  case 1:
+                    handler = (c, ctx) -> {
+                      c.prefix = 0xDD;
+                      return false;
+                    };
+                    break;
+                  case 2:
+                    handler = (c, ctx) -> {
+                      c.prefix = 0xED;
+                      return false;
+                    };
+                    break;
+                  default:
+                    handler = (c, ctx) -> {
+                      c.prefix = 0xFD;
+                      return false;
+                    };
+                    break;
+                }
+              }
+            }
+            break;
+            case 6:
+              handler = (c, ctx) -> {
+                c.doALU_A_n(ctx, y);
+                return true;
+              };
+              break;
+            default:
+              handler = (c, ctx) -> {
+                c.doRST(ctx, y << 3);
+                return true;
+              };
+              break;
+          }
+        }
+        break;
+      }
+      result[commandByte] = handler;
+    }
+    return result;
+  }
+
+  private static OpcodeHandler[] makeCbTable() {
+    final OpcodeHandler[] result = new OpcodeHandler[0x100];
+    for (int commandByte = 0; commandByte < 0x100; commandByte++) {
+      final int y = extractY(commandByte);
+      final int z = extractZ(commandByte);
+      switch (extractX(commandByte)) {
+        case 0:
+          result[commandByte] = (c, ctx) -> {
+            c.doRollShift(ctx, y, z);
+            return true;
+          };
+          break;
+        case 1:
+          result[commandByte] = (c, ctx) -> {
+            c.doBIT(ctx, y, z);
+            return true;
+          };
+          break;
+        case 2:
+          result[commandByte] = (c, ctx) -> {
+            c.doRES(ctx, y, z);
+            return true;
+          };
+          break;
+        default:
+          result[commandByte] = (c, ctx) -> {
+            c.doSET(ctx, y, z);
+            return true;
+          };
+          break;
+      }
+    }
+    return result;
+  }
+
+  private static OpcodeHandler[] makeIndexCbTable() {
+    final OpcodeHandler[] result = new OpcodeHandler[0x100];
+    for (int commandByte = 0; commandByte < 0x100; commandByte++) {
+      final int y = extractY(commandByte);
+      final int z = extractZ(commandByte);
+      switch (extractX(commandByte)) {
+        case 0: {
+          if (z == 6) {
+            result[commandByte] = (c, ctx) -> {
+              c.doRollShift(ctx, y, z);
+              return true;
+            };
+          } else {
+            result[commandByte] = (c, ctx) -> {
+              c.doROTmem_LDreg(ctx, z, y);
+              return true;
+            };
+          }
+        }
+        break;
+        case 1:
+          result[commandByte] = (c, ctx) -> {
+            c.doBIT(ctx, y, 6);
+            return true;
+          };
+          break;
+        case 2: {
+          if (z == 6) {
+            result[commandByte] = (c, ctx) -> {
+              c.doRES(ctx, y, z);
+              return true;
+            };
+          } else {
+            result[commandByte] = (c, ctx) -> {
+              c.doRESmem_LDreg(ctx, z, y);
+              return true;
+            };
+          }
+        }
+        break;
+        default: {
+          if (z == 6) {
+            result[commandByte] = (c, ctx) -> {
+              c.doSET(ctx, y, z);
+              return true;
+            };
+          } else {
+            result[commandByte] = (c, ctx) -> {
+              c.doSETmem_LDreg(ctx, z, y);
+              return true;
+            };
+          }
+        }
+        break;
+      }
+    }
+    return result;
+  }
+
+  private static OpcodeHandler[] makeEdTable() {
+    final OpcodeHandler nonInstruction = (c, ctx) -> {
+      c.doNONI();
+      return true;
+    };
+
+    final OpcodeHandler[] result = new OpcodeHandler[0x100];
+    for (int commandByte = 0; commandByte < 0x100; commandByte++) {
+      final int y = extractY(commandByte);
+      final int z = extractZ(commandByte);
+      final int p = extractP(commandByte);
+      final int q = extractQ(commandByte);
+      final OpcodeHandler handler;
+      if (commandByte == 0xCB) {
+        handler = (c, ctx) -> {
+          c.prefix = 0xEDCB;
+          return true;
+        };
+      } else {
+        switch (extractX(commandByte)) {
+          case 1: {
+            switch (z) {
+              case 0: {
+                if (y == 6) {
+                  handler = (c, ctx) -> {
+                    c.doIN_C(ctx);
+                    return true;
+                  };
+                } else {
+                  handler = (c, ctx) -> {
+                    c.doIN_C(ctx, y);
+                    return true;
+                  };
+                }
+              }
+              break;
+              case 1: {
+                if (y == 6) {
+                  handler = (c, ctx) -> {
+                    c.doOUT_C(ctx);
+                    return true;
+                  };
+                } else {
+                  handler = (c, ctx) -> {
+                    c.doOUT_C(ctx, y);
+                    return true;
+                  };
+                }
+              }
+              break;
+              case 2: {
+                if (q == 0) {
+                  handler = (c, ctx) -> {
+                    c.doSBC_HL_RegPair(p);
+                    return true;
+                  };
+                } else {
+                  handler = (c, ctx) -> {
+                    c.doADC_HL_RegPair(p);
+                    return true;
+                  };
+                }
+              }
+              break;
+              case 3: {
+                if (q == 0) {
+                  handler = (c, ctx) -> {
+                    c.doLD_mNN_RegP(ctx, p);
+                    return true;
+                  };
+                } else {
+                  handler = (c, ctx) -> {
+                    c.doLD_RegP_mNN(ctx, p);
+                    return true;
+                  };
+                }
+              }
+              break;
+              case 4:
+                handler = (c, ctx) -> {
+                  c.doNEG();
+                  return true;
+                };
+                break;
+              case 5: {
+                if (y == 1) {
+                  handler = (c, ctx) -> {
+                    c.doRETI(ctx);
+                    return true;
+                  };
+                } else {
+                  handler = (c, ctx) -> {
+                    c.doRETN(ctx);
+                    return true;
+                  };
+                }
+              }
+              break;
+              case 6:
+                handler = (c, ctx) -> {
+                  c.doIM(y);
+                  return true;
+                };
+                break;
+              default: {
+                switch (y) {
+                  case 0:
+                    handler = (c, ctx) -> {
+                      c.doLD_I_A();
+                      return true;
+                    };
+                    break;
+                  case 1:
+                    handler = (c, ctx) -> {
+                      c.doLD_R_A();
+                      return true;
+                    };
+                    break;
+                  case 2:
+                    handler = (c, ctx) -> {
+                      c.doLD_A_I();
+                      return true;
+                    };
+                    break;
+                  case 3:
+                    handler = (c, ctx) -> {
+                      c.doLD_A_R();
+                      return true;
+                    };
+                    break;
+                  case 4:
+                    handler = (c, ctx) -> {
+                      c.doRRD(ctx);
+                      return true;
+                    };
+                    break;
+                  case 5:
+                    handler = (c, ctx) -> {
+                      c.doRLD(ctx);
+                      return true;
+                    };
+                    break;
+                  default:
+                    handler = (c, ctx) -> {
+                      c.doNOP();
+                      return true;
+                    };
+                    break;
+                }
+              }
+              break;
+            }
+          }
+          break;
+          case 2: {
+            if (z <= 3 && y >= 4) {
+              handler = (c, ctx) -> {
+                c.insideBlockInstruction = c.doBLI(ctx, y, z);
+                return true;
+              };
+            } else {
+              handler = nonInstruction;
+            }
+          }
+          break;
+          default:
+            handler = nonInstruction;
+            break;
+        }
+      }
+      result[commandByte] = handler;
+    }
+    return result;
+  }
+
+  @FunctionalInterface
+  private interface OpcodeHandler {
+    /**
+     * Execute decoded instruction.
+     *
+     * @param cpu CPU to execute instruction
+     * @param ctx context of the call
+     * @return true if command completed, false if only prefix is processed
+     */
+    boolean execute(Z80 cpu, int ctx);
+  }
+
   private void doNONI() {
     this.prefix = 0;
     this.stepAllowsInterruption = false;
@@ -22,7 +22,7 @@ import static org.junit.Assert.assertFalse;
 
 import java.util.Arrays;
 
-public final class TestBus implements Z80CPUBus {
+public class TestBus implements Z80CPUBus {
 
   private final byte[] memory = new byte[0x10000];
   private final byte[] ports = new byte[0x10000];
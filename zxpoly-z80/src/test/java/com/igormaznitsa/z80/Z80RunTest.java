@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2021 Igor Maznitsa
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.igormaznitsa.z80;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Z80RunTest {
+
+  @Test
+  public void testRun_StopOnBudget() {
+    final TestBus tb = new TestBus(0xFF, 0, 0x00, 0x00, 0x00, 0x00, 0x00);
+    final Z80 cpu = new Z80(tb);
+
+    assertEquals(12, cpu.run(111, Z80.SIGNAL_IN_ALL_INACTIVE, 10));
+    assertEquals(3, cpu.getRegister(Z80.REG_PC));
+    assertEquals(4, cpu.getStepTstates());
+    assertEquals(0, cpu.getRunTstates());
+  }
+
+  @Test
+  public void testRun_AtLeastOneStep() {
+    final TestBus tb = new TestBus(0xFF, 0, 0x00, 0x00);
+    final Z80 cpu = new Z80(tb);
+
+    assertEquals(4, cpu.run(111, Z80.SIGNAL_IN_ALL_INACTIVE, 0));
+    assertEquals(1, cpu.getRegister(Z80.REG_PC));
+  }
+
+  @Test
+  public void testRun_StopOnHalt() {
+    final TestBus tb = new TestBus(0xFF, 0, 0x00, 0x00, 0x76, 0x00);
+    final Z80 cpu = new Z80(tb);
+
+    assertEquals(12, cpu.run(111, Z80.SIGNAL_IN_ALL_INACTIVE, 1000));
+    assertEquals(0, cpu.getState() & Z80.SIGNAL_OUT_nHALT);
+
+    // already in HALT, so that spins till end of budget
+    assertEquals(20, cpu.run(111, Z80.SIGNAL_IN_ALL_INACTIVE, 20));
+    assertEquals(0, cpu.getState() & Z80.SIGNAL_OUT_nHALT);
+  }
+
+  @Test
+  public void testRun_StopRequestedByBus() {
+    final int[] runTstatesOnWrite = new int[] {-1};
+    final TestBus tb = new TestBus(0xFF, 0, 0x00, 0xD3, 0xFE, 0x00, 0x00) {
+      @Override
+      public void writePort(final Z80 cpu, final int ctx, final int port, final byte data) {
+        super.writePort(cpu, ctx, port, data);
+        runTstatesOnWrite[0] = cpu.getRunTstates();
+        cpu.requestStop();
+      }
+    };
+    final Z80 cpu = new Z80(tb);
+
+    assertEquals(15, cpu.run(111, Z80.SIGNAL_IN_ALL_INACTIVE, 1000));
+    assertEquals(3, cpu.getRegister(Z80.REG_PC));
+    assertEquals(4, runTstatesOnWrite[0]);
+
+    assertEquals(8, cpu.run(111, Z80.SIGNAL_IN_ALL_INACTIVE, 8));
+    assertEquals(5, cpu.getRegister(Z80.REG_PC));
+  }
+
+  @Test
+  public void testRun_IntDuringRun() {
+    final TestBus tb = new TestBus(0xFF, 0, 0xFB, 0x00, 0x00, 0x00);
+    final Z80 cpu = new Z80(tb);
+    cpu.setIM(1);
+    cpu.setRegister(Z80.REG_SP, 0xFFFF);
+
+    cpu.run(111, ~Z80.SIGNAL_IN_nINT, 8);
+    assertEquals(0x38, cpu.getRegister(Z80.REG_PC));
+    assertFalse(cpu.isIFF1());
+  }
+}
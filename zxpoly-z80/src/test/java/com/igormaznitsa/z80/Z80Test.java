@@ -24,6 +24,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
+import java.util.Random;
 import org.junit.Test;
 
 public class Z80Test extends AbstractZ80Test {
@@ -3627,6 +3628,77 @@ public class Z80Test extends AbstractZ80Test {
     assertEquals(0x88, cpu.getRegister(Z80.REG_F));
   }
 
+  private static Z80 makeCpuWithRegisters(final Random rnd) {
+    final Z80 cpu = new Z80(new TestBus(0, 0));
+    for (int reg = Z80.REG_A; reg <= Z80.REG_L; reg++) {
+      cpu.setRegister(reg, rnd.nextInt(0x100), false);
+      cpu.setRegister(reg, rnd.nextInt(0x100), true);
+    }
+    cpu.setRegister(Z80.REG_IX, rnd.nextInt(0x10000));
+    cpu.setRegister(Z80.REG_IY, rnd.nextInt(0x10000));
+    cpu.setRegister(Z80.REG_SP, rnd.nextInt(0x10000));
+    cpu.setRegister(Z80.REG_PC, rnd.nextInt(0x10000));
+    return cpu;
+  }
+
+  private static int alignedValue(final int dst, final int src, final int mask) {
+    return (dst & ~mask) | (src & mask);
+  }
+
+  @Test
+  public void testAlignRegisterValuesWith() {
+    final Random rnd = new Random(12345L);
+    final String allowed = "AFBCDEHLXxYy10PSsafbcdehl";
+    for (int i = 0; i < 2000; i++) {
+      final StringBuilder regs = new StringBuilder();
+      for (final char c : allowed.toCharArray()) {
+        if (rnd.nextInt(3) == 0) {
+          regs.append(c);
+        }
+      }
+      final int flags = Z80.parseAndPackRegAlignValue(regs.toString());
+
+      final Z80 src = makeCpuWithRegisters(rnd);
+      final Z80 dst = makeCpuWithRegisters(rnd);
+      final Z80 expected = new Z80(dst);
+
+      // align twice to check both preparation and reuse of masks
+      dst.alignRegisterValuesWith(src, flags);
+      dst.alignRegisterValuesWith(src, flags);
+
+      final String id = "'" + regs + "'";
+      if (flags == 0) {
+        assertEquals(id, src.getRegister(Z80.REG_PC), dst.getRegister(Z80.REG_PC));
+        assertEquals(id, src.getRegister(Z80.REG_SP), dst.getRegister(Z80.REG_SP));
+        continue;
+      }
+      for (int reg = Z80.REG_A; reg <= Z80.REG_L; reg++) {
+        final char main = allowed.charAt(reg);
+        final char alt = allowed.charAt(17 + reg);
+        int mainMask = regs.indexOf(String.valueOf(main)) >= 0 ? 0xFF : 0;
+        int altMask = regs.indexOf(String.valueOf(alt)) >= 0 ? 0xFF : 0;
+        if (reg == Z80.REG_F) {
+          mainMask |= regs.indexOf("1") >= 0 ? 0xFF & ~Z80.FLAG_C : 0;
+          altMask |= regs.indexOf("0") >= 0 ? 0xFF & ~Z80.FLAG_C : 0;
+        }
+        assertEquals(id + " reg " + main,
+                alignedValue(expected.getRegister(reg, false), src.getRegister(reg, false), mainMask),
+                dst.getRegister(reg, false));
+        assertEquals(id + " reg " + alt,
+                alignedValue(expected.getRegister(reg, true), src.getRegister(reg, true), altMask),
+                dst.getRegister(reg, true));
+      }
+      final int ixMask = (regs.indexOf("X") >= 0 ? 0xFF00 : 0) | (regs.indexOf("x") >= 0 ? 0xFF : 0);
+      final int iyMask = (regs.indexOf("Y") >= 0 ? 0xFF00 : 0) | (regs.indexOf("y") >= 0 ? 0xFF : 0);
+      final int spMask = (regs.indexOf("S") >= 0 ? 0xFF00 : 0) | (regs.indexOf("s") >= 0 ? 0xFF : 0);
+      final int pcMask = regs.indexOf("P") >= 0 ? 0xFFFF : 0;
+      assertEquals(id, alignedValue(expected.getRegister(Z80.REG_IX), src.getRegister(Z80.REG_IX), ixMask), dst.getRegister(Z80.REG_IX));
+      assertEquals(id, alignedValue(expected.getRegister(Z80.REG_IY), src.getRegister(Z80.REG_IY), iyMask), dst.getRegister(Z80.REG_IY));
+      assertEquals(id, alignedValue(expected.getRegister(Z80.REG_SP), src.getRegister(Z80.REG_SP), spMask), dst.getRegister(Z80.REG_SP));
+      assertEquals(id, alignedValue(expected.getRegister(Z80.REG_PC), src.getRegister(Z80.REG_PC), pcMask), dst.getRegister(Z80.REG_PC));
+    }
+  }
+
   @Test
   public void testM1andLastInstructionByte() {
     final TestBus testbus = new TestBus(0, 0x1A47, 0xCD, 0x35, 0x21);
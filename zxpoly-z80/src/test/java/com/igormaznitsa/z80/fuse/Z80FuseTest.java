@@ -91,6 +91,15 @@ public class Z80FuseTest {
 
   @Test
   public void doAllTests() {
+    this.doAllTests(false);
+  }
+
+  @Test
+  public void doAllTests_TableDecoding() {
+    this.doAllTests(true);
+  }
+
+  private void doAllTests(final boolean tableDecoding) {
     final AtomicInteger counterOk = new AtomicInteger(0);
 
     final List<Pair<InfoIn, InfoExpected>> failedTests = new ArrayList<>();
@@ -99,7 +108,7 @@ public class Z80FuseTest {
             // .filter(x -> x.getLeft().name.equals("eda3"))
             .forEach(test -> {
               printTestHeader(test);
-              final boolean ok = this.doTest(test);
+              final boolean ok = this.doTest(test, tableDecoding);
               if (ok) {
                 System.out.println("OK");
                 counterOk.incrementAndGet();
@@ -143,7 +152,7 @@ public class Z80FuseTest {
     return tstates;
   }
 
-  private boolean doTest(final Pair<InfoIn, InfoExpected> test) {
+  private boolean doTest(final Pair<InfoIn, InfoExpected> test, final boolean tableDecoding) {
     final byte[] areaRam = new byte[0xFFFF];
     final byte[] areaIoRd = new byte[0xFFFF];
     final byte[] areaIoWr = new byte[0xFFFF];
@@ -222,7 +231,7 @@ public class Z80FuseTest {
       public int postProcessOr(Z80 cpu, int ctx, int regIndex, int valueA, int value, int result) {
         return result;
       }
-    });
+    }, tableDecoding);
     cpu.doReset();
 
     fillCpu(cpu, test.getLeft());